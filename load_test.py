@@ -0,0 +1,132 @@
+"""
+Load test for the name match service.
+
+Opens N keep-alive connections and sends requests on all of them for a fixed time, then reports
+throughput, latency percentiles, errors, requests rejected by admission control (429) and, when
+--pid is given, the server's resident memory.
+Run it once against the default Tomcat pool and once with namematch.server.virtual-threads=true
+to compare the two serving modes.
+
+    python load_test.py --url http://localhost:3000 --connections 200 --clients 4 --duration 30
+    python load_test.py --mode batch --batch-size 500 --connections 20 --pid $(pgrep -f name-match)
+"""
+import argparse
+import http.client
+import json
+import random
+import threading
+import time
+from urllib.parse import urlencode, urlparse
+
+NAMES = [
+    ("Rahul Kumar Sharma", "Rahul K Sharma"),
+    ("Priya Ramesh Iyer", "Priya R. Iyer"),
+    ("Venkatesh Srinivasan", "Venkatesh Srinivas"),
+    ("Mohammed Imran Khan", "Imran Khan Mohammed"),
+    ("Lakshmi Narayanan", "Laxmi Narayan"),
+    ("Anjali Gupta", "Anjali Verma"),
+    ("S. Karthik", "Karthik Subramanian"),
+    ("John Doe", "Jon Doe"),
+]
+
+
+def resident_kb(pid):
+    try:
+        with open(f"/proc/{pid}/status") as f:
+            for line in f:
+                if line.startswith("VmRSS:"):
+                    return int(line.split()[1])
+    except OSError:
+        pass
+    return None
+
+
+def worker(args, index, target, deadline, results, lock):
+    connection = http.client.HTTPConnection(target.hostname, target.port or 80, timeout=60)
+    # Connections are spread over --clients ids, which admission control limits separately
+    client = {"X-Client-Id": f"load-test-{index % args.clients}"}
+    latencies = []
+    errors = 0
+    rejected = 0
+    while time.monotonic() < deadline:
+        start = time.perf_counter()
+        try:
+            if args.mode == "batch":
+                pairs = [dict(zip(("name1", "name2"), random.choice(NAMES))) for _ in range(args.batch_size)]
+                connection.request("POST", "/nameMatchScore/batch", body=json.dumps(pairs),
+                                   headers={"Content-Type": "application/json", **client})
+            else:
+                name1, name2 = random.choice(NAMES)
+                query = urlencode({"name1": name1, "name2": name2, "algorithm": args.algorithm})
+                connection.request("GET", "/nameMatchScore?" + query, headers=client)
+            response = connection.getresponse()
+            response.read()
+            if response.status == 429:
+                rejected += 1
+            elif response.status != 200:
+                errors += 1
+            else:
+                latencies.append(time.perf_counter() - start)
+        except (OSError, http.client.HTTPException):
+            errors += 1
+            connection.close()
+            connection = http.client.HTTPConnection(target.hostname, target.port or 80, timeout=60)
+    connection.close()
+    with lock:
+        results["latencies"].extend(latencies)
+        results["errors"] += errors
+        results["rejected"] += rejected
+
+
+def percentile(sorted_values, fraction):
+    if not sorted_values:
+        return float("nan")
+    return sorted_values[min(len(sorted_values) - 1, int(fraction * len(sorted_values)))]
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Load test the name match service")
+    parser.add_argument("--url", default="http://localhost:3000")
+    parser.add_argument("--mode", choices=["single", "batch"], default="single")
+    parser.add_argument("--algorithm", default="generic")
+    parser.add_argument("--batch-size", type=int, default=100)
+    parser.add_argument("--connections", type=int, default=100)
+    parser.add_argument("--clients", type=int, default=1, help="distinct X-Client-Id values to send")
+    parser.add_argument("--duration", type=float, default=30)
+    parser.add_argument("--pid", type=int, help="server process id, to sample its resident memory")
+    args = parser.parse_args()
+
+    target = urlparse(args.url)
+    results = {"latencies": [], "errors": 0, "rejected": 0}
+    lock = threading.Lock()
+    deadline = time.monotonic() + args.duration
+    threads = [threading.Thread(target=worker, args=(args, i, target, deadline, results, lock), daemon=True)
+               for i in range(args.connections)]
+
+    rss_samples = []
+    started = time.monotonic()
+    for thread in threads:
+        thread.start()
+    while any(thread.is_alive() for thread in threads):
+        if args.pid:
+            rss = resident_kb(args.pid)
+            if rss is not None:
+                rss_samples.append(rss)
+        time.sleep(0.5)
+    elapsed = time.monotonic() - started
+
+    latencies = sorted(results["latencies"])
+    requests = len(latencies)
+    pairs = requests * (args.batch_size if args.mode == "batch" else 1)
+    print(f"mode={args.mode} connections={args.connections} duration={elapsed:.1f}s")
+    print(f"requests={requests} errors={results['errors']} rejected={results['rejected']} throughput={requests / elapsed:.1f} req/s "
+          f"({pairs / elapsed:.1f} pairs/s)")
+    print("latency ms: p50={:.1f} p95={:.1f} p99={:.1f} max={:.1f}".format(
+        *(1000 * percentile(latencies, f) for f in (0.50, 0.95, 0.99, 1.0))))
+    if rss_samples:
+        print(f"server RSS MB: start={rss_samples[0] / 1024:.0f} max={max(rss_samples) / 1024:.0f} "
+              f"end={rss_samples[-1] / 1024:.0f}")
+
+
+if __name__ == "__main__":
+    main()
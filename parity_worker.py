@@ -0,0 +1,53 @@
+"""Long-lived Python scorer for the Java parity harness (ComparisonTool).
+
+Loads a module that defines MainFunction(name1, name2), e.g. name_match_score.py or
+name-match-srini.py, and answers one JSON line per request line on stdin:
+
+    {"id": 7, "name1": "Rahul Sharma", "name2": null}
+    {"id": 7, "match": "Reject", "match_score": 0.0}
+
+A case that raises is answered with {"id": 7, "error": "..."} and the worker keeps going.
+Anything the module prints goes to /dev/null so it cannot corrupt the protocol.
+
+Usage: python parity_worker.py <path to module>
+"""
+import importlib.util
+import json
+import os
+import sys
+
+
+def load(path):
+    path = os.path.abspath(path)
+    # Modules import siblings such as flask_health
+    sys.path.insert(0, os.path.dirname(path))
+    name = os.path.splitext(os.path.basename(path))[0].replace("-", "_")
+    spec = importlib.util.spec_from_file_location(name, path)
+    module = importlib.util.module_from_spec(spec)
+    spec.loader.exec_module(module)
+    return module.MainFunction
+
+
+def main():
+    if len(sys.argv) != 2:
+        sys.stderr.write("Usage: python parity_worker.py <path to module>\n")
+        sys.exit(2)
+
+    out = os.fdopen(os.dup(sys.stdout.fileno()), "w", encoding="utf-8")
+    sys.stdout = open(os.devnull, "w")
+    main_function = load(sys.argv[1])
+
+    for line in sys.stdin.buffer:
+        request = json.loads(line)
+        try:
+            match, score = main_function(request.get("name1"), request.get("name2"))[:2]
+            response = {"id": request["id"], "match": match, "match_score": score}
+        except Exception as e:
+            response = {"id": request["id"], "error": repr(e)}
+        out.write(json.dumps(response))
+        out.write("\n")
+        out.flush()
+
+
+if __name__ == "__main__":
+    main()
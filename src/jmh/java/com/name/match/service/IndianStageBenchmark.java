@@ -0,0 +1,49 @@
+package com.name.match.service;
+
+import com.name.match.util.IndianNameMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each {@link IndianNameMatcher.Stage} on its own over the {@code test_cases_1000.csv}
+ * corpus, including the shared parsing of the pair. These are the per-call costs the stage order of
+ * {@code singleCompare} is based on; {@code NameMatchBenchmark.indianSingleCompareTimed} shows how
+ * the stages share the work in that order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class IndianStageBenchmark {
+
+    @Param({"EXACT", "RATIO", "PARTIAL_RATIO", "JARO_WINKLER", "INITIALS"})
+    private IndianNameMatcher.Stage stage;
+
+    private NameCorpus corpus;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        corpus = NameCorpus.load();
+    }
+
+    @Benchmark
+    public boolean stage() {
+        int i = index;
+        index = i + 1 == corpus.size() ? 0 : i + 1;
+        return IndianNameMatcher.test(stage, corpus.name1[i], corpus.name2[i]);
+    }
+}
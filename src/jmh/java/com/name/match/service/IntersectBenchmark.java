@@ -0,0 +1,104 @@
+package com.name.match.service;
+
+import com.name.match.util.BigramKernel;
+import com.name.match.util.DoubletMultiset;
+import com.name.match.util.Intersector;
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the doublet intersection alone, per {@link Intersector}, over the
+ * {@code test_cases_1000.csv} corpus.
+ *
+ * The packed, sorted doublets of every pair are prepared in setup, as the generic algorithm and
+ * the Indian makeduo build them, so one operation is one intersection. The {@code vector}
+ * implementation needs the {@code vector} profile:
+ * {@code mvn -Pbenchmark,vector package exec:exec -Djmh.args="IntersectBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class IntersectBenchmark {
+
+    @Param({"scalar", "vector"})
+    private String intersector;
+
+    private Intersector implementation;
+
+    private int[][] generic1;
+    private int[][] generic2;
+    private int[][] indian1;
+    private int[][] indian2;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        implementation = intersector.equals("vector")
+                ? Intersector.vector().orElseThrow(() -> new IllegalStateException(
+                        "The vector intersector needs -Pvector and --add-modules jdk.incubator.vector"))
+                : Intersector.scalar();
+
+        NameCorpus corpus = NameCorpus.load();
+        int size = corpus.size();
+        generic1 = new int[size][];
+        generic2 = new int[size][];
+        indian1 = new int[size][];
+        indian2 = new int[size][];
+        NormalizedName normalized = new NormalizedName();
+        DoubletMultiset doublets = new DoubletMultiset();
+        for (int i = 0; i < size; i++) {
+            generic1[i] = bigrams(NameNormalizer.generic(corpus.name1[i], normalized));
+            generic2[i] = bigrams(NameNormalizer.generic(corpus.name2[i], normalized));
+            indian1[i] = codes(doublets, NameNormalizer.indian(corpus.name1[i], true, normalized));
+            indian2[i] = codes(doublets, NameNormalizer.indian(corpus.name2[i], false, normalized));
+        }
+    }
+
+    private static int[] bigrams(NormalizedName name) {
+        int[] codes = new int[BigramKernel.doubletCount(name.length())];
+        BigramKernel.doublets(name, 0, name.length(), codes, 0);
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    private static int[] codes(DoubletMultiset doublets, NormalizedName name) {
+        doublets.clear();
+        doublets.addParts(name);
+        return Arrays.copyOf(doublets.codes(), doublets.codeCount());
+    }
+
+    private int next() {
+        int i = index;
+        index = i + 1 == generic1.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public int genericDoublets() {
+        int i = next();
+        return implementation.intersect(generic1[i], generic1[i].length, generic2[i], generic2[i].length);
+    }
+
+    @Benchmark
+    public int indianDoublets() {
+        int i = next();
+        return implementation.intersect(indian1[i], indian1[i].length, indian2[i], indian2[i].length);
+    }
+}
@@ -0,0 +1,60 @@
+package com.name.match.service;
+
+import com.name.match.io.CsvPairReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Name pairs for the benchmarks, taken from the same CSV the parity tests use.
+ *
+ * The file is {@code test_cases_1000.csv} in the working directory unless the
+ * {@code namematch.corpus} system property points elsewhere. Rows with a null or empty name are
+ * dropped, since they return before reaching any of the measured code.
+ */
+final class NameCorpus {
+
+    final String[] name1;
+    final String[] name2;
+
+    private NameCorpus(String[] name1, String[] name2) {
+        this.name1 = name1;
+        this.name2 = name2;
+    }
+
+    static NameCorpus load() {
+        String file = System.getProperty("namematch.corpus", "test_cases_1000.csv");
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        try (CsvPairReader reader = new CsvPairReader(Paths.get(file))) {
+            while (reader.hasNext()) {
+                CsvPairReader.TestCase testCase = reader.next();
+                if (isPresent(testCase.getName1()) && isPresent(testCase.getName2())) {
+                    first.add(testCase.getName1());
+                    second.add(testCase.getName2());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read benchmark corpus " + file, e);
+        }
+        return new NameCorpus(first.toArray(new String[0]), second.toArray(new String[0]));
+    }
+
+    int size() {
+        return name1.length;
+    }
+
+    /**
+     * Applies the normalization NameMatchService.mainFunction uses before building doublets.
+     */
+    static String normalize(String name) {
+        return name.replace(" ", "").toLowerCase().trim();
+    }
+
+    private static boolean isPresent(String name) {
+        return name != null && !name.isEmpty();
+    }
+}
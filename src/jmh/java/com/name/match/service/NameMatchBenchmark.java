@@ -0,0 +1,221 @@
+package com.name.match.service;
+
+import com.name.match.model.MatchResult;
+import com.name.match.reference.ReferenceStore;
+import com.name.match.reference.ReferenceStoreWriter;
+import com.name.match.util.FuzzyKernel;
+import com.name.match.util.IndianNameMatcher;
+import com.name.match.util.TokenAligner;
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the name matching hot paths over the {@code test_cases_1000.csv} corpus.
+ *
+ * Each invocation scores the next pair of the corpus, so one operation is one pair and the
+ * figures are directly comparable between methods. Run with {@code -prof gc} (the default in
+ * the benchmark profile) to see bytes allocated per operation next to the throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class NameMatchBenchmark {
+
+    private NameMatchService nameMatchService;
+    private NameMatcher alignmentMatcher;
+    private IndianNameMatchService indianNameMatchService;
+
+    private NameCorpus corpus;
+    private String[] normalized1;
+    private String[] normalized2;
+    private List<String>[] parts1;
+    private List<String>[] doublets1;
+    private List<String>[] doublets2;
+    private String[] soundex1;
+    private String[] soundex2;
+    private Path referencePath;
+    private ReferenceStore reference;
+
+    private final IndianNameMatcher.StageTimings stageTimings = new IndianNameMatcher.StageTimings();
+    private final MatchResult.Holder holder = new MatchResult.Holder();
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        nameMatchService = new NameMatchService();
+        alignmentMatcher = ScoringMode.TOKEN_ALIGNMENT.apply(nameMatchService);
+        indianNameMatchService = new IndianNameMatchService();
+        corpus = NameCorpus.load();
+
+        int size = corpus.size();
+        normalized1 = new String[size];
+        normalized2 = new String[size];
+        parts1 = new List[size];
+        doublets1 = new List[size];
+        doublets2 = new List[size];
+        soundex1 = new String[size];
+        soundex2 = new String[size];
+        for (int i = 0; i < size; i++) {
+            normalized1[i] = NameCorpus.normalize(corpus.name1[i]);
+            normalized2[i] = NameCorpus.normalize(corpus.name2[i]);
+            parts1[i] = Collections.singletonList(normalized1[i]);
+            doublets1[i] = nameMatchService.makeDoublet(parts1[i]);
+            doublets2[i] = nameMatchService.makeDoublet(Collections.singletonList(normalized2[i]));
+            soundex1[i] = nameMatchService.soundex(normalized1[i]);
+            soundex2[i] = nameMatchService.soundex(normalized2[i]);
+        }
+
+        // The second names as a reference store, so record i is corpus.name2[i]
+        referencePath = Files.createTempFile("namematch-benchmark", ".nmref");
+        try (ReferenceStoreWriter writer = new ReferenceStoreWriter(referencePath)) {
+            for (int i = 0; i < size; i++) {
+                writer.add(corpus.name2[i]);
+            }
+        }
+        reference = ReferenceStore.open(referencePath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(referencePath);
+        if (stageTimings.getCalls(IndianNameMatcher.Stage.EXACT) > 0) {
+            System.out.println();
+            System.out.print(stageTimings);
+        }
+    }
+
+    private int next() {
+        int i = index;
+        index = i + 1 == corpus.size() ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public MatchResult mainFunction() {
+        int i = next();
+        return nameMatchService.mainFunction(corpus.name1[i], corpus.name2[i]);
+    }
+
+    @Benchmark
+    public MatchResult.Holder mainFunctionHolder() {
+        int i = next();
+        nameMatchService.mainFunction(corpus.name1[i], corpus.name2[i], holder);
+        return holder;
+    }
+
+    @Benchmark
+    public MatchResult.Holder mainFunctionReference() {
+        int i = next();
+        nameMatchService.mainFunction(corpus.name1[i], reference, i, holder);
+        return holder;
+    }
+
+    @Benchmark
+    public MatchResult.Holder mainFunctionAlignment() {
+        int i = next();
+        alignmentMatcher.mainFunction(corpus.name1[i], corpus.name2[i], holder);
+        return holder;
+    }
+
+    @Benchmark
+    public double tokenAlignment() {
+        int i = next();
+        return TokenAligner.similarity(corpus.name1[i], corpus.name2[i]);
+    }
+
+    @Benchmark
+    public List<String> makeDoublet() {
+        return nameMatchService.makeDoublet(parts1[next()]);
+    }
+
+    @Benchmark
+    public double compareString() {
+        int i = next();
+        return nameMatchService.compareString(doublets1[i], doublets2[i]);
+    }
+
+    @Benchmark
+    public String soundex() {
+        return nameMatchService.soundex(normalized1[next()]);
+    }
+
+    @Benchmark
+    public MatchResult indianMainFunction() {
+        int i = next();
+        return indianNameMatchService.mainFunction(corpus.name1[i], corpus.name2[i]);
+    }
+
+    @Benchmark
+    public MatchResult.Holder indianMainFunctionHolder() {
+        int i = next();
+        indianNameMatchService.mainFunction(corpus.name1[i], corpus.name2[i], holder);
+        return holder;
+    }
+
+    @Benchmark
+    public MatchResult.Holder indianMainFunctionReference() {
+        int i = next();
+        indianNameMatchService.mainFunction(corpus.name1[i], reference, i, holder);
+        return holder;
+    }
+
+    @Benchmark
+    public String indianSingleCompare() {
+        int i = next();
+        return IndianNameMatcher.singleCompare(corpus.name1[i], corpus.name2[i]);
+    }
+
+    /**
+     * singleCompare with stage timings; the calls, matches and mean time of every stage are printed
+     * at the end of each fork.
+     */
+    @Benchmark
+    public String indianSingleCompareTimed() {
+        int i = next();
+        return IndianNameMatcher.singleCompare(corpus.name1[i], corpus.name2[i], stageTimings);
+    }
+
+    /**
+     * The scores soundexMatch computes, with FuzzyKernel.
+     */
+    @Benchmark
+    public double fuzzyScores() {
+        int i = next();
+        return FuzzyKernel.jaroWinkler(soundex1[i], soundex2[i])
+                + FuzzyKernel.ratio(normalized1[i], normalized2[i])
+                + FuzzyKernel.partialRatio(normalized1[i], normalized2[i]);
+    }
+
+    /**
+     * The same scores with the fuzzywuzzy and commons-text implementations FuzzyKernel replaced.
+     */
+    @Benchmark
+    public double fuzzyScoresLibrary() {
+        int i = next();
+        return new JaroWinklerSimilarity().apply(soundex1[i], soundex2[i])
+                + FuzzySearch.ratio(normalized1[i], normalized2[i])
+                + FuzzySearch.partialRatio(normalized1[i], normalized2[i]);
+    }
+}
@@ -1,5 +1,6 @@
 package com.name.match;
 
+import com.name.match.model.MatchResult;
 import com.name.match.service.NameMatchService;
 import java.util.*;
 
@@ -19,8 +20,8 @@ public class NameMatchCommandLine {
             NameMatchService service = new NameMatchService();
             var result = service.mainFunction(name1, name2);
             
-            System.out.println("Match: " + result.get("match"));
-            System.out.println("Score: " + result.get("match_score"));
+            System.out.println("Match: " + result.getDecision().label());
+            System.out.println("Score: " + result.getScore());
         } else {
             System.out.println("Usage:");
             System.out.println("  java NameMatchCommandLine <name1> <name2>");
@@ -107,14 +108,14 @@ public class NameMatchCommandLine {
             String name2 = testCase.get("name2");
             String description = testCase.get("description");
             
-            Map<String, Object> result = service.mainFunction(name1, name2);
+            MatchResult result = service.mainFunction(name1, name2);
             
             System.out.printf("%-4d %-20s %-20s %-10s %-10s %s%n", 
                     (i + 1), 
                     truncate(name1, 20), 
                     truncate(name2, 20),
-                    result.get("match"), 
-                    result.get("match_score"), 
+                    result.getDecision().label(), 
+                    result.getScore(), 
                     description);
         }
         System.out.println("------------------------------------------------------------");
@@ -1,10 +1,19 @@
 package com.name.match;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.name.match.dedup.DedupJob;
+import com.name.match.dedup.DuplicateFinder;
+import com.name.match.io.CsvPairReader;
+import com.name.match.io.ResultWriter;
+import com.name.match.model.MatchResult;
+import com.name.match.service.BatchMatchService;
 import com.name.match.service.NameMatchService;
+import com.name.match.service.NameMatcher;
+import com.name.match.service.NameMatcherRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -14,22 +23,82 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
+/**
+ * Runs the CSV test cases through the matcher.
+ *
+ * Without arguments it scores {@code test_cases_1000.csv} and pretty-prints {@code java_results.json}
+ * for the Python comparison scripts. With {@code --input} it switches to a streaming batch mode for
+ * files of any size:
+ *
+ * <pre>
+ * java -jar name-match.jar --input=cases.csv --output=results.ndjson [--format=json|ndjson|csv]
+ *                          [--threads=N] [--algorithm=generic|indian]
+ * </pre>
+ *
+ * Rows are read through a buffered channel, scored in parallel chunks and written as they complete,
+ * so memory use stays flat no matter how many rows the file has. The format defaults to the output
+ * file extension.
+ *
+ * With {@code --dedup} the input is an {@code id,name} table instead, and clusters of duplicate
+ * names are written as CSV:
+ *
+ * <pre>
+ * java -jar name-match.jar --dedup --input=customers.csv --output=clusters.csv [--threshold=0.98]
+ *                          [--max-block-size=1000] [--threads=N]
+ * </pre>
+ */
 @SpringBootApplication
 public class TestRunner {
 
+    private static final int STREAMING_CHUNK_SIZE = 4096;
+
+    private static final String STREAMING_USAGE = "Usage: java -jar name-match.jar --input=<cases.csv>"
+            + " [--output=<results.ndjson>] [--format=json|ndjson|csv] [--threads=<n>] [--algorithm=generic|indian]";
+
     @Autowired
     private NameMatchService nameMatchService;
 
+    @Autowired
+    private NameMatcherRegistry matchers;
+
     public static void main(String[] args) {
-        ConfigurableApplicationContext ctx = SpringApplication.run(TestRunner.class, args);
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("input") && !options.containsKey("dedup")) {
+            // Fail before scoring starts, not once the output is opened
+            try {
+                ResultWriter.Format.of(format(options));
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                System.out.println(STREAMING_USAGE);
+                System.exit(1);
+            }
+        }
+        SpringApplication application = new SpringApplication(TestRunner.class);
+        if (options.containsKey("input")) {
+            // Offline scoring does not need the HTTP server
+            application.setWebApplicationType(WebApplicationType.NONE);
+        }
+        ConfigurableApplicationContext ctx = application.run(args);
         ctx.close();
     }
 
     @Bean
     public CommandLineRunner run() {
         return args -> {
+            Map<String, String> options = parseOptions(args);
+            if (options.containsKey("dedup")) {
+                runDedup(options);
+                return;
+            }
+            if (options.containsKey("input")) {
+                runStreaming(options);
+                return;
+            }
+
             List<Map<String, Object>> results = new ArrayList<>();
             String csvFile = "test_cases_1000.csv";  // Use the 1000 test cases file by default
             
@@ -43,7 +112,7 @@ public class TestRunner {
                 
                 while ((line = br.readLine()) != null) {
                     // Parse the CSV line more robustly
-                    List<String> values = parseCSVLine(line);
+                    List<String> values = CsvPairReader.parseLine(line);
                     
                     if (values.size() >= 2) {
                         String name1 = "null".equals(values.get(0)) ? null : values.get(0);
@@ -51,7 +120,7 @@ public class TestRunner {
                         String description = values.size() > 2 ? values.get(2) : "";
                         
                         // Run the name match algorithm
-                        Map<String, Object> result = nameMatchService.mainFunction(name1, name2);
+                        MatchResult result = nameMatchService.mainFunction(name1, name2);
                         
                         // Create test result entry
                         Map<String, Object> testResult = new HashMap<>();
@@ -59,8 +128,8 @@ public class TestRunner {
                         testResult.put("name1", name1);
                         testResult.put("name2", name2);
                         testResult.put("description", description);
-                        testResult.put("match_result", result.get("match"));
-                        testResult.put("match_score", result.get("match_score"));
+                        testResult.put("match_result", result.getDecision().label());
+                        testResult.put("match_score", result.getScore());
                         
                         results.add(testResult);
                     }
@@ -79,29 +148,79 @@ public class TestRunner {
     }
     
     /**
-     * Parse a CSV line properly handling quoted values and commas within fields
+     * Streaming batch mode: scores every row of {@code --input} and writes results incrementally.
      */
-    private List<String> parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder field = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(field.toString());
-                field.setLength(0);
-            } else {
-                field.append(c);
+    private void runStreaming(Map<String, String> options) throws Exception {
+        Path input = Paths.get(options.get("input"));
+        Path output = output(options);
+        String format = format(options);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+        NameMatcher matcher = matchers.get(options.get("algorithm"));
+
+        System.out.println("Streaming test cases from " + input + " to " + output
+                + " (" + format + ", algorithm " + matcher.algorithm() + ")");
+
+        BatchMatchService batch = new BatchMatchService(threads, STREAMING_CHUNK_SIZE);
+        long start = System.nanoTime();
+        try (CsvPairReader reader = new CsvPairReader(input);
+             ResultWriter writer = ResultWriter.open(output, format)) {
+            long count = batch.scoreAll(matcher, reader,
+                    (pair, result) -> writer.write((CsvPairReader.TestCase) pair, result));
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Completed %d test cases in %.1f s (%.0f rows/s). Results saved to %s%n",
+                    count, seconds, count / Math.max(seconds, 1e-9), output);
+        } finally {
+            batch.shutdown();
+        }
+    }
+
+    private void runDedup(Map<String, String> options) throws Exception {
+        Path input = Paths.get(options.get("input"));
+        Path output = Paths.get(options.getOrDefault("output", "clusters.csv"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "0.98"));
+        int maxBlockSize = Integer.parseInt(options.getOrDefault("max-block-size", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+
+        System.out.println("Deduplicating " + input + " into " + output + " (threshold " + threshold
+                + ", blocks of up to " + maxBlockSize + " names)");
+
+        DuplicateFinder finder = new DuplicateFinder(matchers.get("indian"), threshold, maxBlockSize, threads);
+        new DedupJob(finder).run(input, output);
+    }
+
+    /**
+     * Collects {@code --key=value} arguments; a bare {@code --flag} maps to "true".
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    options.put(arg.substring(2), "true");
+                } else {
+                    options.put(arg.substring(2, eq), arg.substring(eq + 1));
+                }
             }
         }
-        
-        // Add the last field
-        result.add(field.toString());
-        
-        return result;
+        return options;
+    }
+
+    private static Path output(Map<String, String> options) {
+        return Paths.get(options.getOrDefault("output", "java_results.ndjson"));
+    }
+
+    /**
+     * The {@code --format} option, or else the output file extension.
+     */
+    private static String format(Map<String, String> options) {
+        return options.getOrDefault("format", extension(output(options)));
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "ndjson" : name.substring(dot + 1);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package com.name.match.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how much work the HTTP endpoints take on, so a burst of batch jobs cannot use up the
+ * request threads and heap that interactive KYC calls need.
+ *
+ * Requests are either {@link Workload#INTERACTIVE} (single pairs, screening, search) or
+ * {@link Workload#BATCH}, with separate limits:
+ *
+ * - At most {@code namematch.admission.batch.max-concurrent} batches are scored at once. Up to
+ *   {@code namematch.admission.batch.max-queued} more wait, first come first served, for at most
+ *   {@code namematch.admission.batch.queue-timeout}; beyond that a batch is rejected at once. Every
+ *   running batch has at most one chunk on the batch scoring pool, so this also bounds that pool's
+ *   queue.
+ * - At most {@code namematch.admission.interactive.max-concurrent} interactive requests run at once.
+ *   They never wait: a request over the limit is rejected at once.
+ * - Each client that identifies itself with the {@code namematch.admission.client-header} header
+ *   may have at most {@code namematch.admission.batch.per-client} batches and
+ *   {@code namematch.admission.interactive.per-client} interactive requests in flight, so one
+ *   client cannot take every slot. Requests without the header only count against the limits
+ *   above: behind a load balancer every caller has the same address, so the address cannot tell
+ *   clients apart.
+ *
+ * A rejection is an {@link AdmissionRejectedException} carrying the workload's configured
+ * {@code retry-after}. In-flight, queued and rejected counts are published as
+ * {@code namematch.admission.*} meters tagged with the workload.
+ */
+@Component
+public class AdmissionControl {
+
+    /**
+     * The class of a request, each with its own limits.
+     */
+    public enum Workload {
+        INTERACTIVE("interactive"),
+        BATCH("batch");
+
+        private final String tag;
+
+        Workload(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    static final String CLIENT_LIMIT = "client-limit";
+    static final String QUEUE_FULL = "queue-full";
+    static final String QUEUE_TIMEOUT = "queue-timeout";
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final Limits interactive;
+    private final Limits batch;
+
+    @Autowired
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${namematch.admission.enabled:true}") boolean enabled,
+                            @Value("${namematch.admission.client-header:X-Client-Id}") String clientHeader,
+                            @Value("${namematch.admission.interactive.max-concurrent:200}") int interactiveConcurrent,
+                            @Value("${namematch.admission.interactive.per-client:100}") int interactivePerClient,
+                            @Value("${namematch.admission.interactive.retry-after:1s}") Duration interactiveRetryAfter,
+                            @Value("${namematch.admission.batch.max-concurrent:4}") int batchConcurrent,
+                            @Value("${namematch.admission.batch.max-queued:8}") int batchQueued,
+                            @Value("${namematch.admission.batch.queue-timeout:5s}") Duration batchQueueTimeout,
+                            @Value("${namematch.admission.batch.per-client:2}") int batchPerClient,
+                            @Value("${namematch.admission.batch.retry-after:10s}") Duration batchRetryAfter) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader;
+        this.interactive = new Limits(meterRegistry, Workload.INTERACTIVE, interactiveConcurrent, 0, Duration.ZERO,
+                interactivePerClient, interactiveRetryAfter);
+        this.batch = new Limits(meterRegistry, Workload.BATCH, batchConcurrent, batchQueued, batchQueueTimeout,
+                batchPerClient, batchRetryAfter);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Name of the request header that identifies the client.
+     */
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    /**
+     * Admits one request, waiting in the batch queue if needed. The returned permit must be closed
+     * when the request completes.
+     *
+     * @param workload Class of the request
+     * @param client Identifies the caller for the per-client limit, or null to skip that limit
+     * @throws AdmissionRejectedException when the request is over a limit
+     */
+    public Permit admit(Workload workload, String client) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        return (workload == Workload.BATCH ? batch : interactive).admit(client);
+    }
+
+    /**
+     * Held by an admitted request until it completes.
+     */
+    public interface Permit extends AutoCloseable {
+
+        Permit NONE = () -> { };
+
+        @Override
+        void close();
+    }
+
+    private static final class Limits {
+        private final Workload workload;
+        private final Semaphore slots;
+        private final int maxQueued;
+        private final long queueTimeoutNanos;
+        private final int perClient;
+        private final Duration retryAfter;
+
+        private final AtomicInteger queued = new AtomicInteger();
+        private final ConcurrentHashMap<String, Integer> inFlightByClient = new ConcurrentHashMap<>();
+
+        private final Counter clientLimitRejections;
+        private final Counter queueFullRejections;
+        private final Counter queueTimeoutRejections;
+
+        Limits(MeterRegistry registry, Workload workload, int maxConcurrent, int maxQueued, Duration queueTimeout,
+               int perClient, Duration retryAfter) {
+            if (maxConcurrent < 1 || perClient < 1 || maxQueued < 0) {
+                throw new IllegalArgumentException("namematch.admission." + workload.tag()
+                        + " limits must be positive");
+            }
+            this.workload = workload;
+            this.slots = new Semaphore(maxConcurrent, true);
+            this.maxQueued = maxQueued;
+            this.queueTimeoutNanos = queueTimeout.toNanos();
+            this.perClient = perClient;
+            this.retryAfter = retryAfter;
+
+            Gauge.builder("namematch.admission.active", slots, s -> maxConcurrent - s.availablePermits())
+                    .description("Admitted requests in progress")
+                    .tag("workload", workload.tag())
+                    .register(registry);
+            Gauge.builder("namematch.admission.queued", queued, AtomicInteger::get)
+                    .description("Requests waiting for admission")
+                    .tag("workload", workload.tag())
+                    .register(registry);
+            this.clientLimitRejections = rejections(registry, workload, CLIENT_LIMIT);
+            this.queueFullRejections = rejections(registry, workload, QUEUE_FULL);
+            this.queueTimeoutRejections = rejections(registry, workload, QUEUE_TIMEOUT);
+        }
+
+        private static Counter rejections(MeterRegistry registry, Workload workload, String reason) {
+            return Counter.builder("namematch.admission.rejected")
+                    .description("Requests answered with 429")
+                    .tag("workload", workload.tag())
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+
+        Permit admit(String client) {
+            if (client != null && !acquireClient(client)) {
+                throw reject(clientLimitRejections, CLIENT_LIMIT);
+            }
+            try {
+                acquireSlot();
+            } catch (RuntimeException e) {
+                releaseClient(client);
+                throw e;
+            }
+            return new Permit() {
+                private boolean closed;
+
+                @Override
+                public void close() {
+                    if (!closed) {
+                        closed = true;
+                        slots.release();
+                        releaseClient(client);
+                    }
+                }
+            };
+        }
+
+        private void acquireSlot() {
+            if (slots.tryAcquire()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw reject(queueFullRejections, QUEUE_FULL);
+            }
+            try {
+                if (!slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw reject(queueTimeoutRejections, QUEUE_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(queueTimeoutRejections, QUEUE_TIMEOUT);
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        private boolean acquireClient(String client) {
+            boolean[] admitted = new boolean[1];
+            inFlightByClient.compute(client, (key, count) -> {
+                int current = count == null ? 0 : count;
+                if (current >= perClient) {
+                    return count;
+                }
+                admitted[0] = true;
+                return current + 1;
+            });
+            return admitted[0];
+        }
+
+        private void releaseClient(String client) {
+            if (client == null) {
+                return;
+            }
+            // Entries are removed at zero, so the map only holds clients with requests in flight
+            inFlightByClient.computeIfPresent(client, (key, count) -> count == 1 ? null : count - 1);
+        }
+
+        private AdmissionRejectedException reject(Counter counter, String reason) {
+            counter.increment();
+            return new AdmissionRejectedException(workload, reason, retryAfter);
+        }
+    }
+}
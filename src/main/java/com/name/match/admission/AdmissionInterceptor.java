@@ -0,0 +1,69 @@
+package com.name.match.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies {@link AdmissionControl} to the scoring endpoints. {@code POST /nameMatchScore/batch} is
+ * a batch request, everything else interactive. The permit is held until the response has been
+ * written, so a streaming batch counts for as long as it is being scored.
+ *
+ * Rejected requests get 429 with {@code Retry-After} in whole seconds and a small JSON body naming
+ * the reason.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionInterceptor(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        AdmissionControl.Workload workload = "POST".equals(request.getMethod())
+                && request.getRequestURI().endsWith("/batch")
+                ? AdmissionControl.Workload.BATCH
+                : AdmissionControl.Workload.INTERACTIVE;
+        try {
+            request.setAttribute(PERMIT_ATTRIBUTE, admissionControl.admit(workload, client(request)));
+            return true;
+        } catch (AdmissionRejectedException e) {
+            long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(seconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"error\":\"Too Many Requests\",\"workload\":\"" + workload.tag()
+                    + "\",\"reason\":\"" + e.getReason() + "\"}");
+            return false;
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            ((AdmissionControl.Permit) permit).close();
+        }
+    }
+
+    /**
+     * The client header, or null without one, which exempts the request from the per-client limit.
+     */
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(admissionControl.getClientHeader());
+        return client == null || client.isEmpty() ? null : client;
+    }
+}
@@ -0,0 +1,40 @@
+package com.name.match.admission;
+
+import java.time.Duration;
+
+/**
+ * A request turned away by {@link AdmissionControl}, answered with 429 and {@code Retry-After}.
+ *
+ * Rejections are frequent exactly when the service is overloaded, so no stack trace is captured.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final AdmissionControl.Workload workload;
+    private final String reason;
+    private final Duration retryAfter;
+
+    AdmissionRejectedException(AdmissionControl.Workload workload, String reason, Duration retryAfter) {
+        super(workload.tag() + " request rejected: " + reason, null, false, false);
+        this.workload = workload;
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public AdmissionControl.Workload getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Why the request was rejected: {@code client-limit}, {@code queue-full} or {@code queue-timeout}.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * How long the client should wait before retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
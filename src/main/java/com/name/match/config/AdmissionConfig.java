@@ -0,0 +1,31 @@
+package com.name.match.config;
+
+import com.name.match.admission.AdmissionControl;
+import com.name.match.admission.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts {@link AdmissionControl} in front of the scoring and search endpoints, unless
+ * {@code namematch.admission.enabled=false}. Actuator endpoints are never limited.
+ */
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionControl admissionControl;
+
+    @Autowired
+    public AdmissionConfig(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionControl.isEnabled()) {
+            registry.addInterceptor(new AdmissionInterceptor(admissionControl))
+                    .addPathPatterns("/nameMatchScore", "/nameMatchScore/**", "/nameSearch");
+        }
+    }
+}
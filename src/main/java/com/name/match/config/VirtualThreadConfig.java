@@ -0,0 +1,87 @@
+package com.name.match.config;
+
+import com.name.match.service.ScoringExecutor;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves HTTP requests on virtual threads when {@code namematch.server.virtual-threads} is set.
+ *
+ * Tomcat normally handles each request on one of {@code server.tomcat.threads.max} platform
+ * threads, so a burst of slow requests (large batches, GC pauses) can use up the pool while
+ * connections wait in the accept queue. With this switch every request gets its own virtual thread:
+ * concurrency is bounded by {@code server.tomcat.max-connections} instead of the pool size, and an
+ * idle request costs a few hundred bytes of heap instead of a thread stack.
+ *
+ * Virtual threads need JDK 21. The build still targets Java 11, so the executor is created
+ * reflectively; on an older runtime a warning is logged and Tomcat keeps its own pool.
+ *
+ * Request threads only parse, wait and write. Scoring of single pairs, screening and search is
+ * handed to a {@link ScoringExecutor} with {@code namematch.server.scoring-threads} platform threads
+ * (0 = one per available processor), so the matchers' per-thread scratch buffers are not rebuilt by
+ * every virtual thread; {@link com.name.match.service.BatchMatchService} keeps its fork-join pool
+ * either way. Both executors are shut down with the application context.
+ */
+@Configuration
+@ConditionalOnProperty(name = "namematch.server.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        if (executor == null) {
+            log.warn("namematch.server.virtual-threads is set but Java {} has no virtual threads (needs 21 or "
+                    + "later); using Tomcat's thread pool", Runtime.version().feature());
+            return protocolHandler -> { };
+        }
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScoringExecutor scoringExecutor(@Value("${namematch.server.scoring-threads:0}") int scoringThreads) {
+        return executor == null ? ScoringExecutor.direct() : ScoringExecutor.pooled(scoringThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, or null if the runtime has no virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                // Java 19 and 20 without --enable-preview
+                return null;
+            }
+            throw new IllegalStateException("Cannot create virtual thread executor", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+}
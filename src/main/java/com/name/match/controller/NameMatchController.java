@@ -1,30 +1,225 @@
 package com.name.match.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.name.match.model.MatchResult;
+import com.name.match.model.NamePair;
+import com.name.match.reference.ReferenceStore;
+import com.name.match.reference.ReferenceStoreService;
+import com.name.match.service.BatchMatchService;
+import com.name.match.service.LatencyGuard;
+import com.name.match.service.MatchResultCache;
 import com.name.match.service.NameMatchService;
+import com.name.match.service.NameMatcher;
+import com.name.match.service.NameMatcherRegistry;
+import com.name.match.service.ScoringExecutor;
+import com.name.match.service.ScoringMode;
+import com.name.match.util.ThresholdScore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 public class NameMatchController {
 
-    private final NameMatchService nameMatchService;
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final NameMatcherRegistry matchers;
+    private final MatchResultCache resultCache;
+    private final BatchMatchService batchMatchService;
+    private final NameMatchService genericMatcher;
+    private final LatencyGuard latencyGuard;
+    private final ReferenceStoreService referenceStores;
+    private final ScoringExecutor scoring;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public NameMatchController(NameMatchService nameMatchService) {
-        this.nameMatchService = nameMatchService;
+    public NameMatchController(NameMatcherRegistry matchers,
+                               MatchResultCache resultCache,
+                               BatchMatchService batchMatchService,
+                               NameMatchService genericMatcher,
+                               LatencyGuard latencyGuard,
+                               ReferenceStoreService referenceStores,
+                               ObjectProvider<ScoringExecutor> scoringExecutor,
+                               ObjectMapper objectMapper) {
+        this.matchers = matchers;
+        this.resultCache = resultCache;
+        this.batchMatchService = batchMatchService;
+        this.genericMatcher = genericMatcher;
+        this.latencyGuard = latencyGuard;
+        this.referenceStores = referenceStores;
+        // Only defined when requests are served on virtual threads
+        this.scoring = scoringExecutor.getIfAvailable(ScoringExecutor::direct);
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Scores one pair. {@code algorithm} selects the matcher: {@code generic} (default) or
+     * {@code indian}. {@code cache=false} bypasses the result cache, when it is enabled, and
+     * forces a fresh score. {@code mode=alignment} also pairs up the name parts, see
+     * {@link ScoringMode#TOKEN_ALIGNMENT}. {@code explain=true} adds the stage that decided the score.
+     * The time taken is reported to the {@link LatencyGuard}.
+     */
     @GetMapping("/nameMatchScore")
-    public ResponseEntity<Map<String, Object>> nameMatchScore(
+    public ResponseEntity<MatchResult> nameMatchScore(
+            @RequestParam(required = false) String name1,
+            @RequestParam(required = false) String name2,
+            @RequestParam(required = false) String algorithm,
+            @RequestParam(defaultValue = "true") boolean cache,
+            @RequestParam(required = false) String mode,
+            @RequestParam(defaultValue = "false") boolean explain) {
+
+        long start = System.nanoTime();
+        MatchResult.Holder result = scoring.call(() -> {
+            MatchResult.Holder holder = new MatchResult.Holder();
+            matcher(algorithm, cache, mode).mainFunction(name1, name2, holder);
+            return holder;
+        });
+        latencyGuard.record(System.nanoTime() - start);
+        return ResponseEntity.ok(result.toResult(name1, name2, explain));
+    }
+
+    /**
+     * Scores a name against the reference name with the given id in the configured
+     * {@link com.name.match.reference.ReferenceStore}, which is the pair's {@code name2}. The result
+     * is the same as {@code GET /nameMatchScore} for that pair, in the standard mode and without the
+     * result cache. Answers 404 when no store is configured or the id is unknown.
+     */
+    @GetMapping("/nameMatchScore/reference")
+    public ResponseEntity<MatchResult> referenceMatchScore(
             @RequestParam(required = false) String name1,
-            @RequestParam(required = false) String name2) {
-        
-        Map<String, Object> result = nameMatchService.mainFunction(name1, name2);
+            @RequestParam int id,
+            @RequestParam(required = false) String algorithm,
+            @RequestParam(defaultValue = "false") boolean explain) {
+
+        if (!referenceStores.isAvailable()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No reference store configured");
+        }
+        long start = System.nanoTime();
+        ReferenceStore store = referenceStores.getStore();
+        if (id < 0 || id >= store.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No reference name with id " + id);
+        }
+        NameMatcher matcher;
+        try {
+            // The services themselves, which read the stored preparation; wrappers would not
+            matcher = matchers.get(algorithm);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        MatchResult.Holder result = scoring.call(() -> {
+            MatchResult.Holder holder = new MatchResult.Holder();
+            matcher.mainFunction(name1, store, id, holder);
+            return holder;
+        });
+        latencyGuard.record(System.nanoTime() - start);
+        return ResponseEntity.ok(result.toResult(name1, store.name(id), explain));
+    }
+
+    /**
+     * Answers only whether the generic match_score for the pair reaches {@code threshold}, for
+     * screening where most pairs are clear rejects. Scoring stops as soon as the answer is known,
+     * so {@code score_lower} and {@code score_upper} bound the score rather than give it.
+     */
+    @GetMapping("/nameMatchScore/screen")
+    public ResponseEntity<Map<String, Object>> screen(
+            @RequestParam(required = false) String name1,
+            @RequestParam(required = false) String name2,
+            @RequestParam(defaultValue = "70") double threshold) {
+
+        ThresholdScore score = scoring.call(() -> genericMatcher.screen(name1, name2, threshold));
+        Map<String, Object> result = new HashMap<>();
+        result.put("name1", name1);
+        result.put("name2", name2);
+        result.put("threshold", threshold);
+        result.put("reached", score.isReached());
+        result.put("score_lower", score.getLowerBound());
+        result.put("score_upper", score.getUpperBound());
         return ResponseEntity.ok(result);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Scores many pairs in one request. The body is either a JSON array of
+     * {@code {"name1": ..., "name2": ...}} objects or NDJSON with one such object per line.
+     * Results are streamed back in input order, as a JSON array for JSON input and as NDJSON
+     * for NDJSON input. {@code algorithm}, {@code cache} and {@code mode} work as for the single
+     * pair endpoint.
+     *
+     * A malformed body is answered with 400 as long as nothing has been sent yet. Once results
+     * are streaming the response is simply cut off, and the missing closing bracket tells the
+     * client the batch did not complete.
+     */
+    @PostMapping(value = "/nameMatchScore/batch",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    public void nameMatchScoreBatch(@RequestParam(required = false) String algorithm,
+                                    @RequestParam(defaultValue = "true") boolean cache,
+                                    @RequestParam(required = false) String mode,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        NameMatcher matcher = matcher(algorithm, cache, mode);
+        boolean ndjson = request.getContentType() != null
+                && request.getContentType().startsWith(APPLICATION_NDJSON_VALUE);
+
+        response.setContentType(ndjson ? APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+        try (MappingIterator<NamePair> pairs = objectMapper.readerFor(NamePair.class)
+                .readValues(request.getInputStream())) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+                batchMatchService.scoreAll(matcher, pairs, (pair, result) -> {
+                    generator.writeObject(result.toResult(pair.getName1(), pair.getName2(), false));
+                    generator.writeRaw('\n');
+                });
+            } else {
+                generator.writeStartArray();
+                batchMatchService.scoreAll(matcher, pairs,
+                        (pair, result) -> generator.writeObject(result.toResult(pair.getName1(), pair.getName2(), false)));
+                generator.writeEndArray();
+            }
+            generator.close();
+        } catch (JsonProcessingException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            throw badRequest(e);
+        } catch (RuntimeException e) {
+            // MappingIterator reports parse errors as unchecked exceptions
+            if (e.getCause() instanceof JsonProcessingException && !response.isCommitted()) {
+                throw badRequest(e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private NameMatcher matcher(String algorithm, boolean cache, String mode) {
+        try {
+            // The cache holds standard scores; the alignment is recomputed on top of them
+            return ScoringMode.fromParameter(mode).apply(resultCache.apply(matchers.get(algorithm), cache));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static ResponseStatusException badRequest(Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed batch request: " + cause.getMessage(), cause);
+    }
+}
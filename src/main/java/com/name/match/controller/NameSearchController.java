@@ -0,0 +1,40 @@
+package com.name.match.controller;
+
+import com.name.match.search.NameSearchService;
+import com.name.match.search.SearchHit;
+import com.name.match.service.ScoringExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class NameSearchController {
+
+    private final NameSearchService nameSearchService;
+    private final ScoringExecutor scoring;
+
+    @Autowired
+    public NameSearchController(NameSearchService nameSearchService,
+                                ObjectProvider<ScoringExecutor> scoringExecutor) {
+        this.nameSearchService = nameSearchService;
+        this.scoring = scoringExecutor.getIfAvailable(ScoringExecutor::direct);
+    }
+
+    /**
+     * Screens one name against the indexed reference list and returns the {@code k} closest
+     * reference names, best first.
+     */
+    @GetMapping("/nameSearch")
+    public ResponseEntity<List<SearchHit>> nameSearch(
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "0") double minScore) {
+
+        return ResponseEntity.ok(scoring.call(() -> nameSearchService.search(name, k, minScore)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.name.match.dedup;
+
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+import com.name.match.util.PhoneticKeys;
+
+import java.util.Arrays;
+
+/**
+ * Blocking keys for deduplication: two names are only ever scored against each other if they share
+ * at least one key.
+ *
+ * Names are normalized the way IndianNameMatchService normalizes its first argument and split into
+ * parts. Each name gets up to three keys:
+ *
+ * 1. Phonetic: the Soundex codes of the parts, sorted ("rahul sharma" and "sharma rahool" both give
+ *    R400 S650)
+ * 2. Tokens: the parts themselves, sorted, which catches reordered and re-punctuated names
+ * 3. Prefix: the first two characters of every part, sorted, which catches spelling variations
+ *    after the second character of each part
+ *
+ * Keys are 32-bit hashes that include the key kind. A hash collision only merges two blocks, which
+ * costs some extra comparisons but never a missed or false match, since every pair is scored in full.
+ */
+public final class BlockingKeys {
+
+    /**
+     * Maximum number of keys per name.
+     */
+    public static final int MAX_KEYS = 3;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final ThreadLocal<NormalizedName> NAME = ThreadLocal.withInitial(NormalizedName::new);
+
+    private BlockingKeys() {
+    }
+
+    /**
+     * Writes the keys of {@code name} into {@code out} and returns how many there are; names with
+     * no letters left after normalization have none.
+     */
+    public static int keys(String name, int[] out) {
+        if (name == null || name.isEmpty()) {
+            return 0;
+        }
+        NormalizedName normalized = NameNormalizer.indian(name, true, NAME.get());
+        int tokens = normalized.tokenCount();
+
+        String[] codes = new String[tokens];
+        long sorted = FNV_OFFSET ^ 'T';
+        long prefix = FNV_OFFSET ^ 'B';
+        int parts = 0;
+        for (int rank = 0; rank < tokens; rank++) {
+            int token = normalized.sortedToken(rank);
+            int start = normalized.tokenStart(token);
+            int end = normalized.tokenEnd(token);
+            if (start == end) {
+                continue;
+            }
+            codes[parts++] = PhoneticKeys.encode(normalized.toString().substring(start, end));
+            sorted = hash(hash(sorted, normalized, start, end), ' ');
+            prefix = hash(hash(prefix, normalized, start, Math.min(end, start + 2)), ' ');
+        }
+        if (parts == 0) {
+            return 0;
+        }
+
+        Arrays.sort(codes, 0, parts);
+        long phonetic = FNV_OFFSET ^ 'P';
+        for (int i = 0; i < parts; i++) {
+            phonetic = hash(hash(phonetic, codes[i], 0, codes[i].length()), ' ');
+        }
+
+        out[0] = fold(phonetic);
+        out[1] = fold(sorted);
+        out[2] = fold(prefix);
+        return MAX_KEYS;
+    }
+
+    private static long hash(long h, CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            h = hash(h, s.charAt(i));
+        }
+        return h;
+    }
+
+    private static long hash(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    private static int fold(long h) {
+        return (int) (h ^ (h >>> 32));
+    }
+}
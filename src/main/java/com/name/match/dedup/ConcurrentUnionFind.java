@@ -0,0 +1,75 @@
+package com.name.match.dedup;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint sets over the ids {@code 0..size-1}.
+ *
+ * Blocks are scored on many threads at once and every match is recorded with {@link #union}, so the
+ * structure must accept concurrent unions and finds. Parents are updated with compare-and-set, a root
+ * is always linked under the smaller root, and finds halve paths as they go. The smallest id of a set
+ * is therefore its root once all unions are done.
+ */
+final class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    ConcurrentUnionFind(int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Current root of {@code id}'s set.
+     */
+    int find(int id) {
+        while (true) {
+            int p = parent.get(id);
+            if (p == id) {
+                return id;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(id, p, grandparent);
+            }
+            id = grandparent;
+        }
+    }
+
+    /**
+     * Whether {@code a} and {@code b} are already known to be in the same set.
+     */
+    boolean connected(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return true;
+            }
+            // rootA may have been linked under another root meanwhile; only trust a stable answer
+            if (parent.get(rootA) == rootA) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Merges the sets of {@code a} and {@code b}.
+     */
+    void union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            int low = Math.min(rootA, rootB);
+            int high = Math.max(rootA, rootB);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+}
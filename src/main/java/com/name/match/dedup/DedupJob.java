@@ -0,0 +1,125 @@
+package com.name.match.dedup;
+
+import com.name.match.io.CsvPairReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline deduplication of a customer table, run from TestRunner with {@code --dedup}.
+ *
+ * Reads an {@code id,name} CSV with a header row, clusters the names with {@link DuplicateFinder}
+ * and writes every cluster of two or more rows as {@code cluster_id,id,name}, where the cluster id is
+ * the id of the cluster's first row in the input. Rows without duplicates are not written.
+ */
+public class DedupJob {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DuplicateFinder finder;
+
+    public DedupJob(DuplicateFinder finder) {
+        this.finder = finder;
+    }
+
+    /**
+     * Clusters {@code input} into {@code output} and prints progress and totals to stdout.
+     */
+    public void run(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        List<String> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        read(input, ids, names);
+        System.out.printf("Read %d rows from %s in %.1f s%n", names.size(), input, seconds(start));
+
+        DuplicateFinder.Result result = finder.find(names.toArray(new String[0]));
+        System.out.printf("Scored %d pairs in %d blocks (%d over the size cap, %d pairs skipped as already "
+                        + "clustered), %d matches, %.1f s%n",
+                result.getPairsScored(), result.getBlocks(), result.getOversizedBlocks(),
+                result.getPairsSkipped(), result.getMatches(), seconds(start));
+
+        long[] members = clusteredRows(result, names.size());
+        write(output, members, ids, names);
+        System.out.printf("Wrote %d rows in clusters to %s, %.1f s in total%n", members.length, output, seconds(start));
+    }
+
+    private static void read(Path input, List<String> ids, List<String> names) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            // Skip header line
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> values = CsvPairReader.parseLine(line);
+                if (values.size() >= 2) {
+                    ids.add(values.get(0));
+                    names.add(values.get(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows that belong to a cluster of two or more, as {@code cluster << 32 | row} sorted by cluster
+     * and then by row.
+     */
+    private static long[] clusteredRows(DuplicateFinder.Result result, int rows) {
+        int[] sizes = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            sizes[result.cluster(row)]++;
+        }
+        long[] members = new long[rows];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            int cluster = result.cluster(row);
+            if (sizes[cluster] > 1) {
+                members[count++] = ((long) cluster << 32) | row;
+            }
+        }
+        members = Arrays.copyOf(members, count);
+        Arrays.sort(members);
+        return members;
+    }
+
+    private static void write(Path output, long[] members, List<String> ids, List<String> names) throws IOException {
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write("cluster_id,id,name\n");
+            for (long member : members) {
+                int cluster = (int) (member >>> 32);
+                int row = (int) member;
+                field(writer, ids.get(cluster));
+                writer.write(',');
+                field(writer, ids.get(row));
+                writer.write(',');
+                field(writer, names.get(row));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static void field(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
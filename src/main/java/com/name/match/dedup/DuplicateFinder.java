@@ -0,0 +1,239 @@
+package com.name.match.dedup;
+
+import com.name.match.model.MatchResult;
+import com.name.match.service.NameMatcher;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Groups the names of a single table into clusters of likely duplicates.
+ *
+ * Comparing every name with every other is out of reach for tens of millions of rows, so the job
+ * only scores names that share a {@link BlockingKeys blocking key}:
+ *
+ * 1. Every name gets its keys; (key, row) entries are packed into longs and sorted, which lays each
+ *    block out as one contiguous run
+ * 2. Blocks are scored on a fork-join pool. Pairs already known to be in the same cluster are
+ *    skipped, every other pair goes through {@link NameMatcher#mainFunction} and is linked when its
+ *    match_score reaches the threshold
+ * 3. Clusters are the connected components of those links
+ *
+ * Blocks larger than {@code maxBlockSize} (very common names) would bring the quadratic cost back;
+ * their names are sorted instead and each one is only compared with the next
+ * {@code maxBlockSize - 1} names in that order.
+ */
+public class DuplicateFinder {
+
+    private static final long NO_ENTRY = -1L >>> 1;
+
+    private final NameMatcher matcher;
+    private final double threshold;
+    private final int maxBlockSize;
+    private final int parallelism;
+
+    /**
+     * @param matcher Algorithm used to score each pair
+     * @param threshold Lowest match_score that makes two rows duplicates
+     * @param maxBlockSize Largest block scored pair by pair
+     * @param parallelism Scoring threads, or 0 for one per available processor
+     */
+    public DuplicateFinder(NameMatcher matcher, double threshold, int maxBlockSize, int parallelism) {
+        this.matcher = matcher;
+        this.threshold = threshold;
+        this.maxBlockSize = Math.max(2, maxBlockSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Clusters found by {@link #find(String[])} and what it took to find them.
+     */
+    public static final class Result {
+        private final int[] clusters;
+        private final int blocks;
+        private final int oversizedBlocks;
+        private final long pairsScored;
+        private final long pairsSkipped;
+        private final long matches;
+
+        Result(int[] clusters, int blocks, int oversizedBlocks, long pairsScored, long pairsSkipped, long matches) {
+            this.clusters = clusters;
+            this.blocks = blocks;
+            this.oversizedBlocks = oversizedBlocks;
+            this.pairsScored = pairsScored;
+            this.pairsSkipped = pairsSkipped;
+            this.matches = matches;
+        }
+
+        /**
+         * Cluster of row {@code row}, identified by its smallest row number; a row with no
+         * duplicates is its own cluster.
+         */
+        public int cluster(int row) {
+            return clusters[row];
+        }
+
+        public int getBlocks() {
+            return blocks;
+        }
+
+        public int getOversizedBlocks() {
+            return oversizedBlocks;
+        }
+
+        public long getPairsScored() {
+            return pairsScored;
+        }
+
+        public long getPairsSkipped() {
+            return pairsSkipped;
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+    }
+
+    /**
+     * Clusters {@code names}; a row is identified by its index in the array.
+     */
+    public Result find(String[] names) {
+        long[] entries = blockEntries(names);
+        int[] blockStarts = compactBlocks(entries);
+        int blockCount = blockStarts.length - 1;
+
+        ConcurrentUnionFind clusters = new ConcurrentUnionFind(names.length);
+        LongAdder scored = new LongAdder();
+        LongAdder skipped = new LongAdder();
+        LongAdder matches = new LongAdder();
+
+        // Largest blocks first, so a huge block does not start last and hold up the whole job
+        long[] order = new long[blockCount];
+        int oversized = 0;
+        for (int b = 0; b < blockCount; b++) {
+            int size = blockStarts[b + 1] - blockStarts[b];
+            order[b] = ((long) size << 32) | b;
+            if (size > maxBlockSize) {
+                oversized++;
+            }
+        }
+        Arrays.parallelSort(order);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, blockCount).parallel().forEach(i -> {
+                int b = (int) order[blockCount - 1 - i];
+                int[] rows = rows(entries, blockStarts[b], blockStarts[b + 1]);
+                scoreBlock(names, rows, clusters, scored, skipped, matches);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scoring blocks", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Block scoring failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] roots = new int[names.length];
+        for (int row = 0; row < names.length; row++) {
+            roots[row] = clusters.find(row);
+        }
+        return new Result(roots, blockCount, oversized, scored.sum(), skipped.sum(), matches.sum());
+    }
+
+    /**
+     * One {@code key << 32 | row} entry per blocking key of every row, sorted.
+     */
+    private static long[] blockEntries(String[] names) {
+        long[] entries = new long[names.length * BlockingKeys.MAX_KEYS];
+        IntStream.range(0, names.length).parallel().forEach(row -> {
+            int[] keys = new int[BlockingKeys.MAX_KEYS];
+            int count = BlockingKeys.keys(names[row], keys);
+            for (int k = 0; k < BlockingKeys.MAX_KEYS; k++) {
+                // Rows are non-negative ints, so no real entry has all low 32 bits set
+                entries[row * BlockingKeys.MAX_KEYS + k] = k < count ? ((long) keys[k] << 32) | row : NO_ENTRY;
+            }
+        });
+        Arrays.parallelSort(entries);
+
+        int size = entries.length;
+        while (size > 0 && entries[size - 1] == NO_ENTRY) {
+            size--;
+        }
+        return size == entries.length ? entries : Arrays.copyOf(entries, size);
+    }
+
+    /**
+     * Moves every run of entries that shares a key and holds more than one row to the front of
+     * {@code entries}, in order, and returns the start offset of each run followed by the end of
+     * the last one. Single-row blocks need no scoring and are dropped.
+     */
+    private static int[] compactBlocks(long[] entries) {
+        int[] starts = new int[entries.length / 2 + 1];
+        int blocks = 0;
+        int write = 0;
+        for (int i = 0; i < entries.length; ) {
+            int j = i + 1;
+            while (j < entries.length && (entries[j] >>> 32) == (entries[i] >>> 32)) {
+                j++;
+            }
+            if (j - i > 1) {
+                starts[blocks++] = write;
+                for (int k = i; k < j; k++) {
+                    entries[write++] = entries[k];
+                }
+            }
+            i = j;
+        }
+        starts[blocks] = write;
+        return Arrays.copyOf(starts, blocks + 1);
+    }
+
+    private static int[] rows(long[] entries, int from, int to) {
+        int[] rows = new int[to - from];
+        for (int i = from; i < to; i++) {
+            rows[i - from] = (int) entries[i];
+        }
+        return rows;
+    }
+
+    private void scoreBlock(String[] names, int[] rows, ConcurrentUnionFind clusters,
+                            LongAdder scored, LongAdder skipped, LongAdder matches) {
+        int window = rows.length;
+        if (rows.length > maxBlockSize) {
+            Integer[] sorted = new Integer[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                sorted[i] = rows[i];
+            }
+            Arrays.sort(sorted, Comparator.comparing((Integer row) -> names[row]));
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = sorted[i];
+            }
+            window = maxBlockSize;
+        }
+
+        MatchResult.Holder result = new MatchResult.Holder();
+        for (int i = 0; i < rows.length; i++) {
+            int last = Math.min(rows.length, i + window);
+            for (int j = i + 1; j < last; j++) {
+                int a = rows[i];
+                int b = rows[j];
+                if (clusters.connected(a, b)) {
+                    skipped.increment();
+                    continue;
+                }
+                scored.increment();
+                matcher.mainFunction(names[a], names[b], result);
+                if (result.getScore() >= threshold) {
+                    clusters.union(a, b);
+                    matches.increment();
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.name.match.health;
 
-import com.name.match.service.NameMatchService;
+import com.name.match.service.NameMatcher;
+import com.name.match.service.NameMatcherRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -9,18 +10,20 @@ import org.springframework.stereotype.Component;
 @Component
 public class HealthService implements HealthIndicator {
 
-    private final NameMatchService nameMatchService;
+    private final NameMatcherRegistry matchers;
 
     @Autowired
-    public HealthService(NameMatchService nameMatchService) {
-        this.nameMatchService = nameMatchService;
+    public HealthService(NameMatcherRegistry matchers) {
+        this.matchers = matchers;
     }
 
     @Override
     public Health health() {
         try {
-            // Test the service by calling mainFunction with null values
-            nameMatchService.mainFunction(null, null);
+            // Test every matcher by calling mainFunction with null values
+            for (NameMatcher matcher : matchers.all()) {
+                matcher.mainFunction(null, null);
+            }
             return Health.up().build();
         } catch (Exception e) {
             return Health.down().withDetail("error", "Service is down!!!").build();
@@ -0,0 +1,30 @@
+package com.name.match.health;
+
+import com.name.match.service.LatencyGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/latencyguard}: whether scoring is currently degraded, the latency and CPU
+ * load that decided it, and the guard's settings.
+ */
+@Component
+@Endpoint(id = "latencyguard")
+public class LatencyGuardEndpoint {
+
+    private final LatencyGuard latencyGuard;
+
+    @Autowired
+    public LatencyGuardEndpoint(LatencyGuard latencyGuard) {
+        this.latencyGuard = latencyGuard;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return latencyGuard.state();
+    }
+}
@@ -0,0 +1,131 @@
+package com.name.match.io;
+
+import com.name.match.model.NamePair;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams test cases from a {@code name1,name2,description} CSV file.
+ *
+ * The file is read through a {@link FileChannel} with a large decode buffer and parsed one row at a
+ * time, so memory use does not depend on the file size. The first line is treated as a header, a
+ * literal {@code null} field stands for a null name, and rows with fewer than two fields are skipped,
+ * the same rules TestRunner has always used for {@code test_cases_1000.csv}.
+ */
+public class CsvPairReader implements Iterator<CsvPairReader.TestCase>, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private TestCase next;
+    private long testId = 1;
+
+    public CsvPairReader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), BUFFER_SIZE), BUFFER_SIZE);
+        // Skip header line
+        reader.readLine();
+    }
+
+    /**
+     * A CSV row with its 1-based position among the scored rows.
+     */
+    public static class TestCase extends NamePair {
+        private final long testId;
+        private final String description;
+
+        public TestCase(long testId, String name1, String name2, String description) {
+            super(name1, name2);
+            this.testId = testId;
+            this.description = description;
+        }
+
+        public long getTestId() {
+            return testId;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> values = parseLine(line);
+                if (values.size() >= 2) {
+                    String name1 = "null".equals(values.get(0)) ? null : values.get(0);
+                    String name2 = "null".equals(values.get(1)) ? null : values.get(1);
+                    String description = values.size() > 2 ? values.get(2) : "";
+                    next = new TestCase(testId++, name1, name2, description);
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public TestCase next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TestCase current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parse a CSV line properly handling quoted values and commas within fields
+     */
+    public static List<String> parseLine(String line) {
+        List<String> result = new ArrayList<>();
+        boolean inQuotes = false;
+        StringBuilder field = new StringBuilder();
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                result.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        // Add the last field
+        result.add(field.toString());
+
+        return result;
+    }
+}
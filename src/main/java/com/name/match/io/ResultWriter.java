@@ -0,0 +1,169 @@
+package com.name.match.io;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.name.match.model.MatchResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes scored test cases incrementally, one record at a time, so output of any size can be
+ * produced with constant memory.
+ *
+ * Every format carries the fields of {@code java_results.json}: test_id, name1, name2, description,
+ * match_result and match_score.
+ */
+public abstract class ResultWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Output formats supported by {@link #open(Path, String)}.
+     */
+    public enum Format {
+        JSON, NDJSON, CSV;
+
+        /**
+         * The format called {@code name}, case insensitive.
+         *
+         * @throws IllegalArgumentException naming the supported formats if there is none
+         */
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported output format \"" + name
+                        + "\", expected json, ndjson or csv");
+            }
+        }
+    }
+
+    /**
+     * Opens a writer for {@code path}.
+     *
+     * @param path File to create or truncate
+     * @param format One of json, ndjson or csv (case insensitive)
+     * @throws IllegalArgumentException for any other format
+     */
+    public static ResultWriter open(Path path, String format) throws IOException {
+        Format parsed = Format.of(format);
+        OutputStream out = Files.newOutputStream(path);
+        switch (parsed) {
+            case NDJSON:
+                return new JsonResultWriter(out, false);
+            case CSV:
+                return new CsvResultWriter(out);
+            default:
+                return new JsonResultWriter(out, true);
+        }
+    }
+
+    /**
+     * Appends one scored test case.
+     */
+    public abstract void write(CsvPairReader.TestCase testCase, MatchResult.Holder result) throws IOException;
+
+    /**
+     * JSON array or NDJSON output through a streaming generator.
+     */
+    private static final class JsonResultWriter extends ResultWriter {
+        private final JsonGenerator generator;
+        private final boolean array;
+
+        JsonResultWriter(OutputStream out, boolean array) throws IOException {
+            this.generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.array = array;
+            if (array) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+        }
+
+        @Override
+        public void write(CsvPairReader.TestCase testCase, MatchResult.Holder result) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("test_id", testCase.getTestId());
+            generator.writeStringField("name1", testCase.getName1());
+            generator.writeStringField("name2", testCase.getName2());
+            generator.writeStringField("description", testCase.getDescription());
+            generator.writeStringField("match_result", result.getDecision().label());
+            generator.writeNumberField("match_score", result.getScore());
+            generator.writeEndObject();
+            if (!array) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (array) {
+                generator.writeEndArray();
+            }
+            generator.close();
+        }
+    }
+
+    /**
+     * CSV output with a header row; fields are quoted only when they need to be, and null names
+     * are written as {@code null} like in the input files.
+     */
+    private static final class CsvResultWriter extends ResultWriter {
+        private final Writer writer;
+
+        CsvResultWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("test_id,name1,name2,description,match_result,match_score\n");
+        }
+
+        @Override
+        public void write(CsvPairReader.TestCase testCase, MatchResult.Holder result) throws IOException {
+            writer.write(Long.toString(testCase.getTestId()));
+            writer.write(',');
+            field(testCase.getName1());
+            writer.write(',');
+            field(testCase.getName2());
+            writer.write(',');
+            field(testCase.getDescription());
+            writer.write(',');
+            field(result.getDecision().label());
+            writer.write(',');
+            writer.write(Double.toString(result.getScore()));
+            writer.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                writer.write("null");
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.name.match.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for one matching algorithm.
+ *
+ * Every meter is registered once up front, so recording a call is a few lock-free increments and
+ * never touches the registry or a shared lock. The meters are exposed through
+ * {@code /actuator/metrics}:
+ *
+ * - {@code namematch.decisions} counter, tagged with the algorithm and the branch that produced the
+ *   score (empty, exact, bigram, soundex-override)
+ * - {@code namematch.score} distribution of final scores
+ * - {@code namematch.latency} timer of mainFunction
+ *
+ * Debug tracing of the soundex stage is sampled: {@link #traceSampled()} is true for the configured
+ * fraction of calls, so tracing can be left on under load without flooding the log.
+ */
+public class MatchMetrics {
+
+    /**
+     * The decision path that produced a score.
+     */
+    public enum Branch {
+        EMPTY("empty"),
+        EXACT("exact"),
+        BIGRAM("bigram"),
+        SOUNDEX_OVERRIDE("soundex-override");
+
+        private final String tag;
+
+        Branch(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final Counter[] decisions = new Counter[Branch.values().length];
+    private final DistributionSummary score;
+    private final Timer latency;
+    private final double traceSampleRate;
+
+    /**
+     * @param registry Registry the meters are added to
+     * @param algorithm Value of the {@code algorithm} tag
+     * @param traceSampleRate Fraction of calls, from 0 to 1, that emit debug tracing
+     */
+    public MatchMetrics(MeterRegistry registry, String algorithm, double traceSampleRate) {
+        for (Branch branch : Branch.values()) {
+            decisions[branch.ordinal()] = Counter.builder("namematch.decisions")
+                    .description("Name match calls by the branch that decided the score")
+                    .tag("algorithm", algorithm)
+                    .tag("branch", branch.tag())
+                    .register(registry);
+        }
+        this.score = DistributionSummary.builder("namematch.score")
+                .description("Final name match scores")
+                .tag("algorithm", algorithm)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.latency = Timer.builder("namematch.latency")
+                .description("Time spent in mainFunction")
+                .tag("algorithm", algorithm)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    /**
+     * Metrics that are recorded nowhere, for services built outside Spring (command line tools).
+     */
+    public static MatchMetrics noop(String algorithm) {
+        return new MatchMetrics(new CompositeMeterRegistry(), algorithm, 0);
+    }
+
+    /**
+     * Records one completed mainFunction call.
+     *
+     * @param branch Decision path that produced the score
+     * @param finalScore Score returned to the caller
+     * @param startNanos {@link System#nanoTime()} taken when the call started
+     */
+    public void record(Branch branch, double finalScore, long startNanos) {
+        decisions[branch.ordinal()].increment();
+        score.record(finalScore);
+        latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Whether this call should emit debug tracing.
+     */
+    public boolean traceSampled() {
+        return traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate;
+    }
+}
@@ -0,0 +1,199 @@
+package com.name.match.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Objects;
+
+/**
+ * The outcome of scoring one pair of names.
+ *
+ * Serializes to the same JSON as the map mainFunction used to return:
+ * {@code {"match":"Manual","match_score":80.0,"name2":"Jon Doe","name1":"John Doe"}}, plus an
+ * {@code explanation} when one was asked for, and {@code "degraded":true} when a refinement stage
+ * was skipped under load (see {@link com.name.match.service.LatencyGuard}).
+ */
+@JsonPropertyOrder({ "match", "match_score", "name2", "name1", "explanation", "degraded" })
+public final class MatchResult {
+
+    /**
+     * What should happen with the pair, from the score and the algorithm's thresholds.
+     */
+    public enum Decision {
+        ACCEPT("Accept"),
+        MANUAL("Manual"),
+        REJECT("Reject");
+
+        private final String label;
+
+        Decision(String label) {
+            this.label = label;
+        }
+
+        /**
+         * The decision for a score expressed as a fraction of the highest score: Accept from 0.99,
+         * Manual from 0.70, the thresholds both algorithms use.
+         */
+        public static Decision forSimilarity(double similarity) {
+            if (similarity >= 0.99) {
+                return ACCEPT;
+            }
+            return similarity >= 0.70 ? MANUAL : REJECT;
+        }
+
+        /**
+         * {@link #forSimilarity} for a score from 0 to 100, compared as is rather than divided, so
+         * scores on the thresholds decide the same way.
+         */
+        public static Decision forPercentage(double percentage) {
+            if (percentage >= 99) {
+                return ACCEPT;
+            }
+            return percentage >= 70 ? MANUAL : REJECT;
+        }
+
+        /**
+         * The {@code match} value of the JSON responses, e.g. "Accept".
+         */
+        @JsonValue
+        public String label() {
+            return label;
+        }
+    }
+
+    private final Decision decision;
+    private final double score;
+    private final String name1;
+    private final String name2;
+    private final String explanation;
+    private final boolean degraded;
+
+    public MatchResult(Decision decision, double score, String name1, String name2, String explanation) {
+        this(decision, score, name1, name2, explanation, false);
+    }
+
+    public MatchResult(Decision decision, double score, String name1, String name2, String explanation,
+                       boolean degraded) {
+        this.decision = Objects.requireNonNull(decision, "decision");
+        this.score = score;
+        this.name1 = name1;
+        this.name2 = name2;
+        this.explanation = explanation;
+        this.degraded = degraded;
+    }
+
+    @JsonProperty("match")
+    public Decision getDecision() {
+        return decision;
+    }
+
+    @JsonProperty("match_score")
+    public double getScore() {
+        return score;
+    }
+
+    public String getName1() {
+        return name1;
+    }
+
+    public String getName2() {
+        return name2;
+    }
+
+    /**
+     * The stage that decided the score, e.g. "bigram" or "soundex-override", or null when not
+     * requested.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getExplanation() {
+        return explanation;
+    }
+
+    /**
+     * Whether the score is the coarser one computed without a refinement stage that the pair
+     * would normally go through. Omitted from the JSON when false.
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MatchResult)) {
+            return false;
+        }
+        MatchResult other = (MatchResult) o;
+        return decision == other.decision
+                && Double.compare(score, other.score) == 0
+                && Objects.equals(name1, other.name1)
+                && Objects.equals(name2, other.name2)
+                && Objects.equals(explanation, other.explanation)
+                && degraded == other.degraded;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(decision, score, name1, name2, explanation, degraded);
+    }
+
+    @Override
+    public String toString() {
+        return "MatchResult{match=" + decision.label() + ", match_score=" + score + ", name1=" + name1
+                + ", name2=" + name2 + (explanation == null ? "" : ", explanation=" + explanation)
+                + (degraded ? ", degraded=true" : "") + "}";
+    }
+
+    /**
+     * Mutable target for {@link com.name.match.service.NameMatcher#mainFunction(String, String, Holder)},
+     * so batch code can score many pairs into one reused object instead of allocating a result per
+     * pair. Not thread safe; use one per thread.
+     */
+    public static final class Holder {
+        private Decision decision = Decision.REJECT;
+        private double score;
+        private String explanation;
+        private boolean degraded;
+
+        public void set(Decision decision, double score, String explanation) {
+            set(decision, score, explanation, false);
+        }
+
+        public void set(Decision decision, double score, String explanation, boolean degraded) {
+            this.decision = decision;
+            this.score = score;
+            this.explanation = explanation;
+            this.degraded = degraded;
+        }
+
+        public Decision getDecision() {
+            return decision;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getExplanation() {
+            return explanation;
+        }
+
+        public boolean isDegraded() {
+            return degraded;
+        }
+
+        /**
+         * An immutable copy for the given names.
+         *
+         * @param explain Whether to include the explanation
+         */
+        public MatchResult toResult(String name1, String name2, boolean explain) {
+            return new MatchResult(decision, score, name1, name2, explain ? explanation : null, degraded);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.name.match.model;
+
+/**
+ * A pair of names submitted for scoring, as read from a batch request body.
+ */
+public class NamePair {
+
+    private String name1;
+    private String name2;
+
+    public NamePair() {
+    }
+
+    public NamePair(String name1, String name2) {
+        this.name1 = name1;
+        this.name2 = name2;
+    }
+
+    public String getName1() {
+        return name1;
+    }
+
+    public void setName1(String name1) {
+        this.name1 = name1;
+    }
+
+    public String getName2() {
+        return name2;
+    }
+
+    public void setName2(String name2) {
+        this.name2 = name2;
+    }
+}
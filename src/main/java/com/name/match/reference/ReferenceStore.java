@@ -0,0 +1,337 @@
+package com.name.match.reference;
+
+import com.name.match.util.DoubletMultiset;
+import com.name.match.util.NormalizedName;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped store of reference names prepared for scoring, written by
+ * {@link ReferenceStoreWriter}.
+ *
+ * When one side of every comparison comes from a fixed list (a customer master, a watch list), the
+ * matchers would otherwise normalize it, build its doublets and compute its Soundex code again for
+ * every pair. The store keeps all of that on disk for each name, for both algorithms, so scoring a
+ * query against a record only prepares the query. Opening a store maps the file and reads its
+ * header; records are paged in by the operating system as they are used, so a store of tens of
+ * millions of names costs no heap and no loading time.
+ *
+ * File layout, little-endian:
+ *
+ * <pre>
+ * header   magic "NMREFST1", int version, int count, long index offset, long file length (64 bytes)
+ * records  one per name, back to back
+ * index    long offset of each record, by id
+ *
+ * record   byte flags (1 = the name was empty)
+ *          chars  original name
+ *          chars  generic normalization (second argument), short doublet count, sorted int doublets,
+ *                 4 chars Soundex
+ *          chars  Indian normalization (second argument), int makeduo length, short code count,
+ *                 sorted int codes, short word count, per word short start, short end, long hash,
+ *                 4 chars Soundex
+ * chars    unsigned short length followed by UTF-16 chars
+ * </pre>
+ *
+ * Names are prepared as the second argument of mainFunction, since the Indian normalization treats
+ * its two arguments differently; the query is always the first.
+ *
+ * A buffer can map at most 2 GB, so the file is mapped in 1 GB segments that each extend
+ * {@link #MAX_RECORD_BYTES} into the next. A record is read entirely from the segment its offset
+ * falls in. Reads use absolute positions only, so one store can be shared by any number of threads;
+ * each thread reads into its own {@link Record}.
+ */
+public final class ReferenceStore {
+
+    static final byte[] MAGIC = "NMREFST1".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    /**
+     * Largest encoded record; longer names are rejected by the writer.
+     */
+    static final int MAX_RECORD_BYTES = 1 << 17;
+
+    static final byte FLAG_EMPTY = 1;
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final Path path;
+    private final ByteBuffer[] segments;
+    private final int count;
+    private final long indexOffset;
+
+    private ReferenceStore(Path path, ByteBuffer[] segments, int count, long indexOffset) {
+        this.path = path;
+        this.segments = segments;
+        this.count = count;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Maps a store file.
+     *
+     * @throws IOException if the file cannot be read or is not a complete store
+     */
+    public static ReferenceStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(path + " is not a reference store");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            for (byte b : MAGIC) {
+                if (header.get() != b) {
+                    throw new IOException(path + " is not a reference store");
+                }
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(path + " has store version " + version + ", expected " + VERSION);
+            }
+            int count = header.getInt();
+            long indexOffset = header.getLong();
+            long length = header.getLong();
+            if (length != size || indexOffset + 8L * count != size) {
+                throw new IOException(path + " is incomplete: " + size + " bytes, expected " + length);
+            }
+
+            ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                long end = Math.min(size, start + SEGMENT_MASK + 1 + MAX_RECORD_BYTES);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new ReferenceStore(path, segments, count, indexOffset);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Number of names; ids run from 0 to {@code size() - 1}.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * The original name with the given id.
+     *
+     * @throws IndexOutOfBoundsException for an unknown id
+     */
+    public String name(int id) {
+        long offset = recordOffset(id);
+        ByteBuffer buffer = segment(offset);
+        int position = base(offset) + 1;
+        int length = buffer.getChar(position);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(position + 2 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Reads what the generic algorithm needs about a name into {@code record}.
+     *
+     * @throws IndexOutOfBoundsException for an unknown id
+     */
+    public Record readGeneric(int id, Record record) {
+        long offset = recordOffset(id);
+        ByteBuffer buffer = segment(offset);
+        int position = base(offset);
+        record.empty = (buffer.get(position) & FLAG_EMPTY) != 0;
+        position = skipChars(buffer, position + 1);
+
+        position = readChars(buffer, position, record);
+        int doubletCount = buffer.getChar(position);
+        position += 2;
+        int[] bigrams = record.bigrams(doubletCount);
+        for (int i = 0; i < doubletCount; i++, position += 4) {
+            bigrams[i] = buffer.getInt(position);
+        }
+        record.bigramCount = doubletCount;
+        readSoundex(buffer, position, record);
+        return record;
+    }
+
+    /**
+     * Reads what the Indian algorithm needs about a name into {@code record}.
+     *
+     * @throws IndexOutOfBoundsException for an unknown id
+     */
+    public Record readIndian(int id, Record record) {
+        long offset = recordOffset(id);
+        ByteBuffer buffer = segment(offset);
+        int position = base(offset);
+        record.empty = (buffer.get(position) & FLAG_EMPTY) != 0;
+        position = skipChars(buffer, position + 1);
+        position = skipChars(buffer, position);
+        position += 2 + 4 * buffer.getChar(position) + 8;
+
+        position = readChars(buffer, position, record);
+        DoubletMultiset doublets = record.doublets.restore(record.normalized, buffer.getInt(position));
+        position += 4;
+        int codeCount = buffer.getChar(position);
+        position += 2;
+        for (int i = 0; i < codeCount; i++, position += 4) {
+            doublets.restoreCode(buffer.getInt(position));
+        }
+        int wordCount = buffer.getChar(position);
+        position += 2;
+        for (int i = 0; i < wordCount; i++, position += 12) {
+            doublets.restoreWord(buffer.getChar(position), buffer.getChar(position + 2), buffer.getLong(position + 4));
+        }
+        readSoundex(buffer, position, record);
+        return record;
+    }
+
+    private long recordOffset(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No reference name with id " + id + " in " + path
+                    + " (" + count + " names)");
+        }
+        long entry = indexOffset + 8L * id;
+        return segment(entry).getLong(base(entry));
+    }
+
+    private ByteBuffer segment(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)];
+    }
+
+    private static int base(long offset) {
+        return (int) (offset & SEGMENT_MASK);
+    }
+
+    private static int skipChars(ByteBuffer buffer, int position) {
+        return position + 2 + 2 * buffer.getChar(position);
+    }
+
+    private static int readChars(ByteBuffer buffer, int position, Record record) {
+        int length = buffer.getChar(position);
+        record.chars.point(buffer, position + 2, length);
+        record.normalized.set(record.chars);
+        return position + 2 + 2 * length;
+    }
+
+    private static void readSoundex(ByteBuffer buffer, int position, Record record) {
+        for (int i = 0; i < 4; i++) {
+            record.soundex[i] = buffer.getChar(position + 2 * i);
+        }
+    }
+
+    /**
+     * One prepared name read from a store, for one algorithm. Reused from read to read; not thread
+     * safe.
+     */
+    public static final class Record {
+        private final MappedChars chars = new MappedChars();
+        private final NormalizedName normalized = new NormalizedName();
+        private final DoubletMultiset doublets = new DoubletMultiset();
+        private final char[] soundex = new char[4];
+        private int[] bigrams = new int[32];
+        private int bigramCount;
+        private boolean empty;
+
+        /**
+         * Whether the original name was empty, which both algorithms score as 0.
+         */
+        public boolean isEmpty() {
+            return empty;
+        }
+
+        /**
+         * The name normalized by the algorithm it was read for.
+         */
+        public NormalizedName normalized() {
+            return normalized;
+        }
+
+        /**
+         * Sorted doublet codes of the generic normalization; only the first {@link #bigramCount()}
+         * entries are valid.
+         */
+        public int[] bigrams() {
+            return bigrams;
+        }
+
+        public int bigramCount() {
+            return bigramCount;
+        }
+
+        /**
+         * The makeduo doublets of the Indian normalization.
+         */
+        public DoubletMultiset doublets() {
+            return doublets;
+        }
+
+        /**
+         * Soundex code of the normalized name, as {@code PhoneticKeys.soundex} would return it.
+         */
+        public String soundex() {
+            return new String(soundex);
+        }
+
+        private int[] bigrams(int size) {
+            if (bigrams.length < size) {
+                bigrams = new int[Math.max(size, 2 * bigrams.length)];
+            }
+            return bigrams;
+        }
+    }
+
+    /**
+     * UTF-16 chars in a mapped buffer, viewed as a CharSequence for copying.
+     */
+    private static final class MappedChars implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+
+        void point(ByteBuffer buffer, int start, int length) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return buffer.getChar(start + 2 * index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.name.match.reference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * The {@link ReferenceStore} named by {@code namematch.reference.store-file}, mapped at startup, for
+ * {@code GET /nameMatchScore/reference}. Without that setting there is no store.
+ */
+@Service
+public class ReferenceStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceStoreService.class);
+
+    private final ReferenceStore store;
+
+    @Autowired
+    public ReferenceStoreService(@Value("${namematch.reference.store-file:}") String storeFile) {
+        if (storeFile.isEmpty()) {
+            this.store = null;
+            return;
+        }
+        try {
+            this.store = ReferenceStore.open(Paths.get(storeFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open reference store " + storeFile, e);
+        }
+        log.info("Mapped {} reference names from {}", store.size(), storeFile);
+    }
+
+    /**
+     * Whether a store is configured.
+     */
+    public boolean isAvailable() {
+        return store != null;
+    }
+
+    /**
+     * The configured store.
+     *
+     * @throws IllegalStateException when none is configured
+     */
+    public ReferenceStore getStore() {
+        if (store == null) {
+            throw new IllegalStateException("No reference store configured (namematch.reference.store-file)");
+        }
+        return store;
+    }
+}
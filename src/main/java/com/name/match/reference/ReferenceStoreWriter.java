@@ -0,0 +1,274 @@
+package com.name.match.reference;
+
+import com.name.match.util.BigramKernel;
+import com.name.match.util.DoubletMultiset;
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+import com.name.match.util.PhoneticKeys;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a {@link ReferenceStore} one name at a time; ids are assigned in the order names are added.
+ *
+ * Memory use does not depend on the number of names: records are written as they are added and
+ * record offsets go to a temporary file that is appended as the index on {@link #close()}. The
+ * store is written under a temporary name and moved into place when complete, so a reader never
+ * sees a partial file; {@link #abort()} discards it instead.
+ *
+ * <pre>
+ * java -Dloader.main=com.name.match.reference.ReferenceStoreWriter -cp name-match.jar \
+ *     org.springframework.boot.loader.PropertiesLauncher --input=names.txt --output=names.nmref
+ * </pre>
+ *
+ * The input has one UTF-8 name per line; a name's id is its line number, counting from 0.
+ */
+public final class ReferenceStoreWriter implements Closeable {
+
+    private static final int INDEX_BUFFER_BYTES = 1 << 16;
+
+    private final Path target;
+    private final Path dataPath;
+    private final Path indexPath;
+    private final FileChannel data;
+    private final FileChannel index;
+
+    private final ByteBuffer record = ByteBuffer.allocate(ReferenceStore.MAX_RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer offsets = ByteBuffer.allocate(INDEX_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final NormalizedName normalized = new NormalizedName();
+    private final DoubletMultiset doublets = new DoubletMultiset();
+    private int[] bigrams = new int[64];
+
+    private long position = ReferenceStore.HEADER_BYTES;
+    private int count;
+    private boolean closed;
+
+    public ReferenceStoreWriter(Path target) throws IOException {
+        this.target = target;
+        this.dataPath = target.resolveSibling(target.getFileName() + ".tmp");
+        this.indexPath = target.resolveSibling(target.getFileName() + ".index.tmp");
+        this.data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        data.position(ReferenceStore.HEADER_BYTES);
+    }
+
+    /**
+     * Number of names added so far.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Prepares and writes one name.
+     *
+     * @param name Reference name; null is stored as empty
+     * @return The name's id
+     * @throws IllegalArgumentException if the name is too long to store
+     */
+    public int add(String name) throws IOException {
+        if (count == Integer.MAX_VALUE) {
+            throw new IllegalStateException("A reference store holds at most " + Integer.MAX_VALUE + " names");
+        }
+        String original = name == null ? "" : name;
+        record.clear();
+        try {
+            encode(original);
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("Name " + count + " is too long for a reference store ("
+                    + original.length() + " chars)", e);
+        }
+        record.flip();
+        while (record.hasRemaining()) {
+            data.write(record);
+        }
+
+        if (!offsets.hasRemaining()) {
+            flushOffsets();
+        }
+        offsets.putLong(position);
+        position += record.limit();
+        return count++;
+    }
+
+    private void encode(String original) {
+        record.put(original.isEmpty() ? ReferenceStore.FLAG_EMPTY : 0);
+        putChars(original);
+
+        // Generic: normalized the same on both sides
+        NameNormalizer.generic(original, normalized);
+        putChars(normalized);
+        int doubletCount = BigramKernel.doubletCount(normalized.length());
+        if (bigrams.length < doubletCount) {
+            bigrams = new int[Math.max(doubletCount, 2 * bigrams.length)];
+        }
+        BigramKernel.doublets(normalized, 0, normalized.length(), bigrams, 0);
+        Arrays.sort(bigrams, 0, doubletCount);
+        putCount(doubletCount);
+        for (int i = 0; i < doubletCount; i++) {
+            record.putInt(bigrams[i]);
+        }
+        putSoundex(normalized.toString());
+
+        // Indian: the reference is always the second argument, which keeps its parentheses
+        NameNormalizer.indian(original, false, normalized);
+        putChars(normalized);
+        doublets.clear();
+        doublets.addParts(normalized);
+        record.putInt(doublets.length());
+        int[] codes = doublets.codes();
+        putCount(doublets.codeCount());
+        for (int i = 0; i < doublets.codeCount(); i++) {
+            record.putInt(codes[i]);
+        }
+        putCount(doublets.wordCount());
+        for (int i = 0; i < doublets.wordCount(); i++) {
+            record.putChar((char) doublets.wordStart(i));
+            record.putChar((char) doublets.wordEnd(i));
+            record.putLong(doublets.wordHash(i));
+        }
+        putSoundex(normalized.toString());
+    }
+
+    private void putChars(CharSequence chars) {
+        putCount(chars.length());
+        for (int i = 0; i < chars.length(); i++) {
+            record.putChar(chars.charAt(i));
+        }
+    }
+
+    private void putCount(int count) {
+        if (count > Character.MAX_VALUE) {
+            throw new BufferOverflowException();
+        }
+        record.putChar((char) count);
+    }
+
+    private void putSoundex(String normalizedName) {
+        // Same as the services' PhoneticKeys.soundex, which caches this function
+        String code = PhoneticKeys.encode(normalizedName);
+        for (int i = 0; i < 4; i++) {
+            record.putChar(code.charAt(i));
+        }
+    }
+
+    private void flushOffsets() throws IOException {
+        offsets.flip();
+        while (offsets.hasRemaining()) {
+            index.write(offsets);
+        }
+        offsets.clear();
+    }
+
+    /**
+     * Appends the index and header and moves the store into place.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel data = this.data; FileChannel index = this.index) {
+            flushOffsets();
+            long indexOffset = position;
+            long indexLength = index.size();
+            long copied = 0;
+            while (copied < indexLength) {
+                copied += index.transferTo(copied, indexLength - copied, data);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(ReferenceStore.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(ReferenceStore.MAGIC);
+            header.putInt(ReferenceStore.VERSION);
+            header.putInt(count);
+            header.putLong(indexOffset);
+            header.putLong(indexOffset + indexLength);
+            header.clear();
+            while (header.hasRemaining()) {
+                data.write(header, header.position());
+            }
+            data.force(true);
+        }
+        Files.delete(indexPath);
+        Files.move(dataPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the partial store instead of completing it.
+     */
+    public void abort() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel data = this.data; FileChannel index = this.index) {
+            // Just close both
+        }
+        Files.deleteIfExists(dataPath);
+        Files.deleteIfExists(indexPath);
+    }
+
+    /**
+     * Builds a store from a text file with one name per line. Nothing is left behind if it fails.
+     */
+    public static int write(Path names, Path target) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(names, StandardCharsets.UTF_8)) {
+            ReferenceStoreWriter writer = new ReferenceStoreWriter(target);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writer.add(line);
+                }
+                writer.close();
+                return writer.size();
+            } catch (IOException | RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.out.println("Usage: java ReferenceStoreWriter --input=<names.txt> --output=<names.nmref>");
+                System.exit(1);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (!options.containsKey("input") || !options.containsKey("output")) {
+            System.out.println("Usage: java ReferenceStoreWriter --input=<names.txt> --output=<names.nmref>");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        try {
+            int count = write(Paths.get(options.get("input")), Paths.get(options.get("output")));
+            System.out.printf("Wrote %d reference names to %s in %.1f s%n", count, options.get("output"),
+                    (System.nanoTime() - start) / 1e9);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot build reference store: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
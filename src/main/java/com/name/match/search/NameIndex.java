@@ -0,0 +1,367 @@
+package com.name.match.search;
+
+import com.name.match.util.DoubletMultiset;
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable inverted index over the doublets {@code IndianNameMatchService.makeduo} produces.
+ *
+ * Every reference name is normalized the way mainFunction normalizes its second argument, which
+ * keeps parentheses, since that is the side it takes when the short list is scored. It is then split
+ * into a {@link DoubletMultiset}. For each distinct token the index stores the ids of the names that
+ * contain it and how many times; two-char tokens are keyed by their packed int code and whole name
+ * parts by their 64-bit hash. All postings live in a few flat primitive arrays, so the index for
+ * millions of names costs a handful of large allocations rather than millions of small objects.
+ *
+ * A query walks the postings of its own tokens, rarest first, and adds up
+ * {@code min(query count, name count)} per name. That sum is exactly the match count
+ * {@code compareString} would compute, except that two different parts with the same 64-bit hash
+ * would be counted as equal; it is therefore an upper bound, and {@link NameSearchService}
+ * re-scores the short list exactly.
+ *
+ * Instances are safe to share between threads.
+ */
+public final class NameIndex {
+
+    private static final ThreadLocal<QueryScratch> SCRATCH = ThreadLocal.withInitial(QueryScratch::new);
+
+    private final String[] names;
+    private final String[] normalized;
+    private final int[] lengths;
+    private final int minLength;
+
+    private final Postings codePostings;
+    private final Postings wordPostings;
+
+    private NameIndex(String[] names, String[] normalized, int[] lengths, int minLength,
+                      Postings codePostings, Postings wordPostings) {
+        this.names = names;
+        this.normalized = normalized;
+        this.lengths = lengths;
+        this.minLength = minLength;
+        this.codePostings = codePostings;
+        this.wordPostings = wordPostings;
+    }
+
+    /**
+     * Normalizes a query the way IndianNameMatchService.mainFunction normalizes its first argument.
+     */
+    public static String normalizeQuery(String name) {
+        return NameNormalizer.indian(name, true, new NormalizedName()).toString();
+    }
+
+    /**
+     * Normalizes a reference name the way IndianNameMatchService.mainFunction normalizes its second
+     * argument.
+     */
+    public static String normalizeReference(String name) {
+        return NameNormalizer.indian(name, false, new NormalizedName()).toString();
+    }
+
+    /**
+     * Builds an index over {@code referenceNames}; a name's id is its position in the list.
+     */
+    public static NameIndex build(List<String> referenceNames) {
+        int size = referenceNames.size();
+        String[] names = referenceNames.toArray(new String[0]);
+        String[] normalized = new String[size];
+        int[] lengths = new int[size];
+        int minLength = Integer.MAX_VALUE;
+
+        // First pass: document frequency of every token, to size the postings
+        Map<Long, int[]> codeFrequency = new HashMap<>();
+        Map<Long, int[]> wordFrequency = new HashMap<>();
+        DoubletMultiset doublets = new DoubletMultiset();
+        for (int id = 0; id < size; id++) {
+            normalized[id] = names[id] == null ? "" : normalizeReference(names[id]);
+            doublets.clear();
+            doublets.addParts(normalized[id]);
+            lengths[id] = doublets.length();
+            minLength = Math.min(minLength, lengths[id]);
+            forEachToken(doublets, (key, count, word) ->
+                    (word ? wordFrequency : codeFrequency).computeIfAbsent(key, k -> new int[1])[0]++);
+        }
+
+        Postings codePostings = Postings.allocate(codeFrequency);
+        Postings wordPostings = Postings.allocate(wordFrequency);
+
+        // Second pass: fill the postings in id order
+        for (int id = 0; id < size; id++) {
+            int doc = id;
+            doublets.clear();
+            doublets.addParts(normalized[id]);
+            forEachToken(doublets, (key, count, word) -> (word ? wordPostings : codePostings).add(key, doc, count));
+        }
+
+        return new NameIndex(names, normalized, lengths, size == 0 ? 0 : minLength, codePostings, wordPostings);
+    }
+
+    /**
+     * Number of indexed names.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Original reference name with the given id.
+     */
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Normalized reference name with the given id, as used for scoring.
+     */
+    public String normalized(int id) {
+        return normalized[id];
+    }
+
+    /**
+     * Names sharing at least one token with the query, each with an upper bound of its
+     * compareString score against the query.
+     */
+    public static final class Candidates {
+        public final int[] ids;
+        public final double[] upperBounds;
+        public final int size;
+
+        Candidates(int[] ids, double[] upperBounds, int size) {
+            this.ids = ids;
+            this.upperBounds = upperBounds;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Collects candidates for {@code query}.
+     *
+     * With {@code minScore > 0}, tokens are processed rarest first and once the query tokens still
+     * unprocessed could no longer lift a name that has not been seen yet to {@code minScore}, no
+     * new names are admitted; the remaining, more common tokens only update names already seen.
+     * Candidates whose bound ends up below {@code minScore} are dropped.
+     *
+     * @param query Normalized query multiset
+     * @param minScore Lowest compareString score of interest, 0 to 100
+     */
+    public Candidates candidates(DoubletMultiset query, double minScore) {
+        QueryScratch scratch = SCRATCH.get();
+        int tokenCount = scratch.collect(query, codePostings, wordPostings);
+        int queryLength = query.length();
+
+        int remaining = 0;
+        for (int t = 0; t < tokenCount; t++) {
+            remaining += scratch.tokenCounts[t];
+        }
+        double required = minScore / 100 * Math.max(1, Math.min(queryLength, minLength));
+
+        int[] overlap = scratch.overlap(names.length);
+        int[] touched = scratch.touched(names.length);
+        int touchedCount = 0;
+
+        for (int t = 0; t < tokenCount; t++) {
+            Postings postings = scratch.tokenIsWord[t] ? wordPostings : codePostings;
+            int slot = scratch.tokenSlots[t];
+            int queryCount = scratch.tokenCounts[t];
+            boolean admit = minScore <= 0 || remaining >= required;
+
+            for (int p = postings.start[slot], end = postings.start[slot + 1]; p < end; p++) {
+                int id = postings.ids[p];
+                if (overlap[id] == 0) {
+                    if (!admit) {
+                        continue;
+                    }
+                    touched[touchedCount++] = id;
+                }
+                overlap[id] += Math.min(queryCount, postings.counts[p]);
+            }
+            remaining -= queryCount;
+        }
+
+        int[] ids = new int[touchedCount];
+        double[] bounds = new double[touchedCount];
+        int size = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            int total = Math.max(1, Math.min(queryLength, lengths[id]));
+            double bound = (overlap[id] / (double) total) * 100;
+            overlap[id] = 0;
+            if (bound >= minScore) {
+                ids[size] = id;
+                bounds[size] = bound;
+                size++;
+            }
+        }
+        return new Candidates(ids, bounds, size);
+    }
+
+    @FunctionalInterface
+    private interface TokenVisitor {
+        void visit(long key, int count, boolean word);
+    }
+
+    /**
+     * Visits every distinct token of a multiset once with its multiplicity.
+     */
+    private static void forEachToken(DoubletMultiset doublets, TokenVisitor visitor) {
+        int[] codes = doublets.codes();
+        int codeCount = doublets.codeCount();
+        for (int i = 0; i < codeCount; ) {
+            int j = i + 1;
+            while (j < codeCount && codes[j] == codes[i]) {
+                j++;
+            }
+            visitor.visit(codes[i], j - i, false);
+            i = j;
+        }
+
+        int wordCount = doublets.wordCount();
+        for (int i = 0; i < wordCount; i++) {
+            long hash = doublets.wordHash(i);
+            boolean seen = false;
+            int count = 0;
+            for (int j = 0; j < wordCount; j++) {
+                if (doublets.wordHash(j) == hash) {
+                    if (j < i) {
+                        seen = true;
+                        break;
+                    }
+                    count++;
+                }
+            }
+            if (!seen) {
+                visitor.visit(hash, count, true);
+            }
+        }
+    }
+
+    /**
+     * Postings for one token space, in compressed sparse row layout: the entries of the token at
+     * {@code slot} are {@code ids/counts[start[slot], start[slot + 1])}.
+     */
+    private static final class Postings {
+        final long[] keys;
+        final int[] start;
+        final int[] ids;
+        final int[] counts;
+        private final int[] fill;
+
+        private Postings(long[] keys, int[] start, int total) {
+            this.keys = keys;
+            this.start = start;
+            this.ids = new int[total];
+            this.counts = new int[total];
+            this.fill = Arrays.copyOf(start, keys.length);
+        }
+
+        static Postings allocate(Map<Long, int[]> frequency) {
+            long[] keys = new long[frequency.size()];
+            int k = 0;
+            for (Long key : frequency.keySet()) {
+                keys[k++] = key;
+            }
+            Arrays.sort(keys);
+
+            int[] start = new int[keys.length + 1];
+            for (int i = 0; i < keys.length; i++) {
+                start[i + 1] = start[i] + frequency.get(keys[i])[0];
+            }
+            return new Postings(keys, start, start[keys.length]);
+        }
+
+        void add(long key, int id, int count) {
+            int slot = Arrays.binarySearch(keys, key);
+            int p = fill[slot]++;
+            ids[p] = id;
+            counts[p] = count;
+        }
+
+        int slot(long key) {
+            return Arrays.binarySearch(keys, key);
+        }
+
+        int length(int slot) {
+            return start[slot + 1] - start[slot];
+        }
+    }
+
+    /**
+     * Per-thread query buffers: the query's distinct tokens and an overlap accumulator with one
+     * slot per indexed name, reset after each query through the touched list.
+     */
+    private static final class QueryScratch {
+        int[] tokenSlots = new int[64];
+        int[] tokenCounts = new int[64];
+        boolean[] tokenIsWord = new boolean[64];
+        private int[] overlap = new int[0];
+        private int[] touched = new int[0];
+
+        int collect(DoubletMultiset query, Postings codePostings, Postings wordPostings) {
+            int[] count = { 0 };
+            forEachToken(query, (key, multiplicity, word) -> {
+                Postings postings = word ? wordPostings : codePostings;
+                int slot = postings.slot(key);
+                if (slot >= 0) {
+                    ensure(count[0] + 1);
+                    tokenSlots[count[0]] = slot;
+                    tokenCounts[count[0]] = multiplicity;
+                    tokenIsWord[count[0]] = word;
+                    count[0]++;
+                }
+            });
+            sortByRarity(count[0], codePostings, wordPostings);
+            return count[0];
+        }
+
+        int[] overlap(int size) {
+            if (overlap.length < size) {
+                overlap = new int[size];
+            }
+            return overlap;
+        }
+
+        int[] touched(int size) {
+            if (touched.length < size) {
+                touched = new int[size];
+            }
+            return touched;
+        }
+
+        /**
+         * Insertion sort of the query tokens by posting length; queries have a few dozen tokens.
+         */
+        private void sortByRarity(int n, Postings codePostings, Postings wordPostings) {
+            for (int i = 1; i < n; i++) {
+                int slot = tokenSlots[i];
+                int count = tokenCounts[i];
+                boolean word = tokenIsWord[i];
+                int length = (word ? wordPostings : codePostings).length(slot);
+                int j = i - 1;
+                while (j >= 0 && (tokenIsWord[j] ? wordPostings : codePostings).length(tokenSlots[j]) > length) {
+                    tokenSlots[j + 1] = tokenSlots[j];
+                    tokenCounts[j + 1] = tokenCounts[j];
+                    tokenIsWord[j + 1] = tokenIsWord[j];
+                    j--;
+                }
+                tokenSlots[j + 1] = slot;
+                tokenCounts[j + 1] = count;
+                tokenIsWord[j + 1] = word;
+            }
+        }
+
+        private void ensure(int size) {
+            if (tokenSlots.length < size) {
+                int capacity = Math.max(size, tokenSlots.length * 2);
+                tokenSlots = Arrays.copyOf(tokenSlots, capacity);
+                tokenCounts = Arrays.copyOf(tokenCounts, capacity);
+                tokenIsWord = Arrays.copyOf(tokenIsWord, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.name.match.search;
+
+import com.name.match.model.MatchResult;
+import com.name.match.service.IndianNameMatchService;
+import com.name.match.util.DoubletMultiset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * One-to-many search of a query name against a reference list such as a watch list.
+ *
+ * The reference list is read once, one name per line, from {@code namematch.search.reference-file}
+ * and indexed with {@link NameIndex}. A search runs in three steps:
+ *
+ * 1. The index returns every name sharing a token with the query, with an upper bound of its
+ *    compareString score
+ * 2. Candidates are re-scored exactly with {@link DoubletMultiset} in descending order of their
+ *    bound, stopping as soon as the bound falls below the k-th best exact score
+ * 3. The top k names get the full {@link IndianNameMatchService#mainFunction} treatment, soundex
+ *    stage included, for the match decision
+ *
+ * So the full score only ever runs on k names, and the exact bigram score on a short prefix of the
+ * candidates.
+ */
+@Service
+public class NameSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchService.class);
+
+    private final IndianNameMatchService indianNameMatchService;
+    private volatile NameIndex index = NameIndex.build(Collections.emptyList());
+
+    @Autowired
+    public NameSearchService(IndianNameMatchService indianNameMatchService,
+                             @Value("${namematch.search.reference-file:}") String referenceFile) {
+        this.indianNameMatchService = indianNameMatchService;
+        if (!referenceFile.isEmpty()) {
+            load(readNames(referenceFile));
+            log.info("Indexed {} reference names from {}", index.size(), referenceFile);
+        }
+    }
+
+    /**
+     * Replaces the reference list. Searches already running finish on the previous index.
+     */
+    public void load(List<String> referenceNames) {
+        index = NameIndex.build(referenceNames);
+    }
+
+    /**
+     * Number of indexed reference names.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns up to {@code k} reference names with the highest compareString score against
+     * {@code query}, best first; ties are broken by reference id.
+     *
+     * @param query Name to screen
+     * @param k Maximum number of hits
+     * @param minScore Lowest bigram score, 0 to 100, a hit may have
+     */
+    public List<SearchHit> search(String query, int k, double minScore) {
+        NameIndex current = index;
+        if (query == null || query.isEmpty() || k <= 0 || current.size() == 0) {
+            return Collections.emptyList();
+        }
+
+        String normalizedQuery = NameIndex.normalizeQuery(query);
+        DoubletMultiset doublets = new DoubletMultiset().addParts(normalizedQuery);
+        NameIndex.Candidates candidates = current.candidates(doublets, minScore);
+
+        // Bounds are non-negative, so their float bits sort like the values; ids go in the low half
+        long[] byBound = new long[candidates.size];
+        for (int i = 0; i < candidates.size; i++) {
+            byBound[i] = ((long) Float.floatToIntBits((float) candidates.upperBounds[i]) << 32) | candidates.ids[i];
+        }
+        Arrays.sort(byBound);
+
+        // Min-heap of the best k exact scores seen so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, (a, b) -> a[0] != b[0]
+                ? Double.compare(a[0], b[0])
+                : Double.compare(b[1], a[1]));
+        for (int i = byBound.length - 1; i >= 0; i--) {
+            float bound = Float.intBitsToFloat((int) (byBound[i] >>> 32));
+            if (best.size() == k && bound < (float) best.peek()[0]) {
+                break;
+            }
+            int id = (int) byBound[i];
+            double score = DoubletMultiset.compare(normalizedQuery, current.normalized(id));
+            if (score < minScore) {
+                continue;
+            }
+            best.add(new double[] { score, id });
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            double[] entry = best.poll();
+            int id = (int) entry[1];
+            MatchResult result = indianNameMatchService.mainFunction(query, current.name(id));
+            hits.add(new SearchHit(id, current.name(id), entry[0], result.getDecision(), result.getScore()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private static List<String> readNames(String referenceFile) {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(referenceFile), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                names.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read reference names from " + referenceFile, e);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,47 @@
+package com.name.match.search;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.name.match.model.MatchResult;
+
+/**
+ * One reference name returned by a search, with its bigram score against the query and the full
+ * mainFunction decision for the pair.
+ */
+public class SearchHit {
+
+    private final int id;
+    private final String name;
+    private final double bigramScore;
+    private final MatchResult.Decision match;
+    private final double matchScore;
+
+    public SearchHit(int id, String name, double bigramScore, MatchResult.Decision match, double matchScore) {
+        this.id = id;
+        this.name = name;
+        this.bigramScore = bigramScore;
+        this.match = match;
+        this.matchScore = matchScore;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("bigram_score")
+    public double getBigramScore() {
+        return bigramScore;
+    }
+
+    public MatchResult.Decision getMatch() {
+        return match;
+    }
+
+    @JsonProperty("match_score")
+    public double getMatchScore() {
+        return matchScore;
+    }
+}
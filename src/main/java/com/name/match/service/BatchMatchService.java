@@ -0,0 +1,145 @@
+package com.name.match.service;
+
+import com.name.match.model.MatchResult;
+import com.name.match.model.NamePair;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Scores large streams of name pairs across all cores while keeping results in input order.
+ *
+ * Pairs are pulled from the input in fixed size chunks. While one chunk is being scored on a
+ * dedicated fork-join pool, the next chunk is read from the input; results are handed to the sink
+ * strictly in input order once their chunk completes. At most two chunks are held in memory, so
+ * the memory used is bounded regardless of how many pairs a request contains. Each call has at most
+ * one chunk on the pool, so the pool's queue is bounded by the number of concurrent calls, which
+ * {@link com.name.match.admission.AdmissionControl} limits for HTTP requests. Its depth is
+ * published as {@code namematch.batch.pool.queued}.
+ */
+@Service
+public class BatchMatchService {
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchMatchService(int parallelism, int chunkSize) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Autowired
+    public BatchMatchService(MeterRegistry meterRegistry,
+                             @Value("${namematch.batch.parallelism:0}") int parallelism,
+                             @Value("${namematch.batch.chunk-size:1024}") int chunkSize) {
+        this(parallelism, chunkSize);
+        Gauge.builder("namematch.batch.pool.queued", pool, p -> p.getQueuedSubmissionCount() + p.getQueuedTaskCount())
+                .description("Batch scoring tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("namematch.batch.pool.active", pool, ForkJoinPool::getActiveThreadCount)
+                .description("Batch scoring threads busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Receives scored results in input order, together with the pair that produced them. The
+     * holder is reused for later pairs, so a sink that keeps a result must copy it, e.g. with
+     * {@link MatchResult.Holder#toResult}.
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(NamePair pair, MatchResult.Holder result) throws IOException;
+    }
+
+    /**
+     * Scores every pair produced by {@code pairs} and passes the results to {@code sink} in the
+     * same order.
+     *
+     * @param matcher Algorithm used to score each pair
+     * @param pairs Source of name pairs, consumed lazily
+     * @param sink Receives one result per pair
+     * @return Number of pairs scored
+     */
+    public long scoreAll(NameMatcher matcher, Iterator<? extends NamePair> pairs, ResultSink sink) throws IOException {
+        Chunk current = new Chunk(chunkSize);
+        Chunk next = new Chunk(chunkSize);
+        long count = 0;
+
+        current.fill(pairs);
+        while (current.size > 0) {
+            Chunk scored = current;
+            Future<?> scoring = pool.submit(() -> scored.score(matcher));
+            next.fill(pairs);
+            await(scoring);
+
+            for (int i = 0; i < current.size; i++) {
+                sink.accept(current.pairs[i], current.results[i]);
+            }
+            count += current.size;
+
+            Chunk done = current;
+            current = next;
+            next = done;
+        }
+        return count;
+    }
+
+    /**
+     * Stops the scoring pool. Called by Spring on shutdown, and by offline jobs that build their
+     * own instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static void await(Future<?> scoring) throws IOException {
+        try {
+            scoring.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scoring batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch scoring failed", e.getCause());
+        }
+    }
+
+    /**
+     * Reusable buffer for one chunk of pairs and their results.
+     */
+    private static final class Chunk {
+        private final NamePair[] pairs;
+        private final MatchResult.Holder[] results;
+        private int size;
+
+        Chunk(int capacity) {
+            pairs = new NamePair[capacity];
+            results = new MatchResult.Holder[capacity];
+            for (int i = 0; i < capacity; i++) {
+                results[i] = new MatchResult.Holder();
+            }
+        }
+
+        void fill(Iterator<? extends NamePair> pairs) {
+            size = 0;
+            while (size < this.pairs.length && pairs.hasNext()) {
+                this.pairs[size++] = pairs.next();
+            }
+        }
+
+        void score(NameMatcher matcher) {
+            IntStream.range(0, size).parallel()
+                    .forEach(i -> matcher.mainFunction(pairs[i].getName1(), pairs[i].getName2(), results[i]));
+        }
+    }
+}
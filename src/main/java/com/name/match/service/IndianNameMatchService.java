@@ -0,0 +1,316 @@
+package com.name.match.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.name.match.metrics.MatchMetrics;
+import com.name.match.model.MatchResult;
+import com.name.match.reference.ReferenceStore;
+import com.name.match.util.DoubletMultiset;
+import com.name.match.util.FuzzyKernel;
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+import com.name.match.util.PhoneticKeys;
+
+import java.util.*;
+
+/**
+ * Service for matching Indian names with special handling for South Indian name patterns.
+ * This implementation mirrors the functionality of name-match-srini.py.
+ */
+@Service
+public class IndianNameMatchService implements NameMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(IndianNameMatchService.class);
+
+    private static final ThreadLocal<NormalizedName[]> NAMES =
+            ThreadLocal.withInitial(() -> new NormalizedName[] { new NormalizedName(), new NormalizedName() });
+
+    private static final ThreadLocal<ReferenceStore.Record> REFERENCES = ThreadLocal.withInitial(ReferenceStore.Record::new);
+
+    private final MatchMetrics metrics;
+    private final PhoneticKeys phoneticKeys;
+    private final LatencyGuard latencyGuard;
+
+    /**
+     * Creates a service without metrics or latency guard, for use outside Spring.
+     */
+    public IndianNameMatchService() {
+        this.metrics = MatchMetrics.noop("indian");
+        this.phoneticKeys = new PhoneticKeys(PhoneticKeys.DEFAULT_MAXIMUM_SIZE);
+        this.latencyGuard = LatencyGuard.disabled();
+    }
+
+    @Autowired
+    public IndianNameMatchService(MeterRegistry meterRegistry, PhoneticKeys phoneticKeys, LatencyGuard latencyGuard,
+                                  @Value("${namematch.metrics.trace-sample-rate:0}") double traceSampleRate) {
+        this.metrics = new MatchMetrics(meterRegistry, "indian", traceSampleRate);
+        this.phoneticKeys = phoneticKeys;
+        this.latencyGuard = latencyGuard;
+    }
+
+    @Override
+    public String algorithm() {
+        return "indian";
+    }
+
+    /**
+     * Evaluates phonetic and fuzzy similarity specifically optimized for Indian names.
+     * 
+     * @param name1 First name to compare
+     * @param name2 Second name to compare
+     * @param matchScore Existing match score from previous comparisons
+     * @return List containing "Manual" and a modified score if the match requires human review, otherwise empty list
+     */
+    public List<Object> soundexMatch(String name1, String name2, double matchScore) {
+        return soundexMatch(name1, name2, soundex(name2), matchScore);
+    }
+
+    /**
+     * {@link #soundexMatch(String, String, double)} with the Soundex code of {@code name2} known.
+     */
+    private List<Object> soundexMatch(String name1, String name2, String soundex2, double matchScore) {
+        double soundexScore = FuzzyKernel.jaroWinkler(soundex(name1), soundex2);
+        if (log.isDebugEnabled() && metrics.traceSampled()) {
+            log.debug("soundexScore : {}, matchScore : {}", soundexScore, matchScore);
+        }
+
+        List<Object> res = new ArrayList<>();
+        
+        // Only soundexScore decides here. The Python version also runs single_compare both ways
+        // but never uses the results, so IndianNameMatcher.singleCompare is not called
+        if (soundexScore > 0.85 && matchScore > 40) {
+            res.add("Manual");
+            res.add((soundexScore * 100) - 5); // Adding adjusted score as in Python version
+        }
+        
+        return res;
+    }
+
+    /**
+     * Implements the Soundex phonetic algorithm for indexing names by sound.
+     * Codes come from the shared, cached {@link PhoneticKeys}.
+     */
+    private String soundex(String s) {
+        return phoneticKeys.soundex(s);
+    }
+
+    /**
+     * Creates doublets (character pairs and special boundary markers) for Indian name comparison.
+     * This follows the makeduo function in the Python implementation.
+     * mainFunction uses {@link DoubletMultiset}, which holds the same doublets without Strings or
+     * boxed counts; this map based form is kept for callers that need the doublet strings.
+     * 
+     * @param nameList List of name parts to generate doublets from
+     * @return Map containing the doublets and their frequencies, with a "length" entry
+     */
+    public Map<String, Integer> makeduo(List<String> nameList) {
+        List<String> duovalue = new ArrayList<>();
+        Map<String, Integer> duovaluemap = new HashMap<>();
+        
+        for (String i : nameList) {
+            if (i.length() == 1) {
+                // Special handling for single character with boundary marker
+                String str = "_" + i.charAt(0);
+                duovalue.add(str);
+            } else if (i.length() > 1) {
+                // Add beginning boundary marker
+                String startStr = "_" + i.charAt(0);
+                duovalue.add(startStr);
+                
+                // Add ending boundary marker
+                String endStr = i.charAt(i.length()-1) + "_";
+                duovalue.add(endStr);
+                
+                // Add all consecutive character pairs
+                for (int j = 0; j < i.length() - 1; j++) {
+                    duovalue.add(i.substring(j, j + 2));
+                }
+                
+                // Add the full word if length > 2
+                if (i.length() > 2) {
+                    duovalue.add(i);
+                }
+            }
+        }
+        
+        // Store the length of the list
+        duovaluemap.put("length", duovalue.size());
+        
+        // Count frequencies of each doublet
+        for (String item : duovalue) {
+            duovaluemap.put(item, duovaluemap.getOrDefault(item, 0) + 1);
+        }
+        
+        return duovaluemap;
+    }
+
+    /**
+     * Compares two sets of doublets to determine name similarity.
+     * 
+     * @param str1 First map of doublets
+     * @param str2 Second map of doublets
+     * @return Similarity percentage from 0-100
+     */
+    public double compareString(Map<String, Integer> str1, Map<String, Integer> str2) {
+        // Make a copy of the maps to avoid modifying the originals
+        Map<String, Integer> map1 = new HashMap<>(str1);
+        Map<String, Integer> map2 = new HashMap<>(str2);
+        
+        // Ensure str1 has fewer or equal doublets compared to str2
+        if (map1.get("length") > map2.get("length")) {
+            Map<String, Integer> temp = map1;
+            map1 = map2;
+            map2 = temp;
+        }
+        
+        int match = 0;
+        int total = map1.get("length");
+        
+        // Remove the length entry before processing
+        map1.remove("length");
+        map2.remove("length");
+        
+        // Compare frequencies and count matches
+        for (Map.Entry<String, Integer> entry : map1.entrySet()) {
+            String key = entry.getKey();
+            if (map2.containsKey(key)) {
+                int minVal = Math.min(entry.getValue(), map2.get(key));
+                match += minVal;
+                map2.put(key, map2.get(key) - minVal);
+            }
+        }
+        
+        // Calculate percentage
+        if (total == 0) {
+            total = 1; // Avoid division by zero
+        }
+        
+        return (match / (double) total) * 100;
+    }
+
+    /**
+     * Scores run from 0 to 1 with two decimals, like mainFunction's.
+     */
+    @Override
+    public double toScore(double similarity) {
+        return Math.round(similarity * 100) / 100.0;
+    }
+
+    @Override
+    public MatchResult.Decision decide(double score) {
+        return MatchResult.Decision.forSimilarity(score);
+    }
+
+    /**
+     * Main function that implements the Indian name matching algorithm. While the
+     * {@link LatencyGuard} is degraded the soundex stage is skipped and a score in its band is
+     * returned as degraded.
+     * 
+     * @param firstString First name to compare
+     * @param secondString Second name to compare
+     * @param result Receives the decision, score and explanation
+     */
+    @Override
+    public void mainFunction(String firstString, String secondString, MatchResult.Holder result) {
+        long start = System.nanoTime();
+        String aadhaar = firstString;
+        String pan = secondString;
+        
+        if (aadhaar == null || aadhaar.isEmpty() || pan == null || pan.isEmpty()) {
+            finish(0.0, MatchMetrics.Branch.EMPTY, false, result, start);
+            return;
+        }
+        // Clean the strings using the same rules as the Python version; the parentheses are
+        // only removed from the first name
+        NormalizedName[] names = NAMES.get();
+        NormalizedName first = NameNormalizer.indian(aadhaar, true, names[0]);
+        NormalizedName second = NameNormalizer.indian(pan, false, names[1]);
+        score(first, second, null, result, start);
+    }
+
+    /**
+     * Same as {@link #mainFunction(String, String, MatchResult.Holder)} with the stored name as the
+     * second argument, using its stored normalization, doublets and Soundex code.
+     */
+    @Override
+    public void mainFunction(String firstString, ReferenceStore store, int id, MatchResult.Holder result) {
+        long start = System.nanoTime();
+        ReferenceStore.Record reference = store.readIndian(id, REFERENCES.get());
+        if (firstString == null || firstString.isEmpty() || reference.isEmpty()) {
+            finish(0.0, MatchMetrics.Branch.EMPTY, false, result, start);
+            return;
+        }
+        NormalizedName first = NameNormalizer.indian(firstString, true, NAMES.get()[0]);
+        score(first, reference.normalized(), reference, result, start);
+    }
+
+    /**
+     * Scores two normalized names; {@code reference} holds the prepared second name, if any.
+     */
+    private void score(NormalizedName first, NormalizedName second, ReferenceStore.Record reference,
+                       MatchResult.Holder result, long start) {
+        if (first.contentEquals(" ") || second.contentEquals(" ")) {
+            finish(0.0, MatchMetrics.Branch.EMPTY, false, result, start);
+            return;
+        }
+        // Calculate the score on primitive doublet multisets; same result as
+        // compareString(makeduo(first parts), makeduo(second parts)) without the map copies
+        double score = reference == null
+                ? DoubletMultiset.compare(first, second)
+                : DoubletMultiset.compare(first, reference.doublets());
+        MatchMetrics.Branch branch = MatchMetrics.Branch.BIGRAM;
+        boolean degraded = false;
+        
+        // Special case for exact matches
+        if (first.equalsIgnoringSpaces(second)) {
+            score = 100;
+            branch = MatchMetrics.Branch.EXACT;
+        } else if (score == 100 && (!first.contentEquals(second) && !first.sortedTokensEqual(second))) {
+            score = 98;
+        }
+        
+        // Check for names that are exactly the same but in different order
+        if (score == 100) {
+            if (first.tokensEqual(second)) {
+                score = 100;
+            } else {
+                score = 98;
+            }
+        }
+        
+        // Apply Soundex for scores in the 40-75 range
+        if (score > 40 && score < 75) {
+            if (!latencyGuard.allowsRefinement()) {
+                degraded = true;
+            } else {
+                List<Object> output = new ArrayList<>();
+                try {
+                    String name2 = second.toString();
+                    output = soundexMatch(first.toString(), name2,
+                            reference == null ? soundex(name2) : reference.soundex(), score);
+                } catch (Exception e) {
+                    // Ignore exceptions
+                }
+
+                if (!output.isEmpty()) {
+                    score = (double) output.get(1);
+                    branch = MatchMetrics.Branch.SOUNDEX_OVERRIDE;
+                }
+            }
+        }
+        finish(score, branch, degraded, result, start);
+    }
+
+    private void finish(double score, MatchMetrics.Branch branch, boolean degraded, MatchResult.Holder result,
+                        long start) {
+        // Normalize score as in Python version
+        score = Math.round(score / 100 * 100.0) / 100.0;
+        
+        result.set(decide(score), score, branch.tag(), degraded);
+        metrics.record(branch, score, start);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.name.match.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Switches the matchers to a cheaper scoring path while {@code GET /nameMatchScore} is over its
+ * latency budget or the process is short of CPU, so callers get a slightly coarser score instead
+ * of a timeout.
+ *
+ * Request latencies are summed per {@code namematch.latency-guard.check-interval}. At the end of
+ * each interval the mean is folded into an exponentially weighted moving average and the process
+ * CPU load is sampled; an interval without interactive requests counts as zero latency, so the
+ * average decays once that traffic stops. The guard degrades when the average exceeds
+ * {@code namematch.latency-guard.budget} or the CPU load exceeds
+ * {@code namematch.latency-guard.cpu-limit}, and recovers only once both are below
+ * {@code namematch.latency-guard.recovery-ratio} of their limits, so it does not flap around them.
+ *
+ * While degraded, {@link #allowsRefinement()} is false and the matchers skip their soundex stage,
+ * returning the bigram score with {@code degraded=true}. Recording is two {@link LongAdder}
+ * increments; the check runs on whichever request first sees the interval end. While degraded,
+ * {@link #allowsRefinement()} runs a due check too, so batch, wire and search scoring recover even
+ * when no interactive request arrives to record.
+ *
+ * State is exposed at {@code /actuator/latencyguard} and as {@code namematch.latency.guard.*} meters.
+ */
+@Component
+public class LatencyGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyGuard.class);
+
+    private static final LatencyGuard DISABLED = new LatencyGuard();
+
+    private final boolean enabled;
+    private final long budgetNanos;
+    private final double cpuLimit;
+    private final double recoveryRatio;
+    private final double smoothing;
+    private final long checkIntervalNanos;
+    private final DoubleSupplier cpuLoad;
+
+    private final LongAdder windowNanos = new LongAdder();
+    private final LongAdder windowCount = new LongAdder();
+    private final AtomicLong nextCheck;
+    private final Counter transitions;
+
+    private volatile boolean degraded;
+    private volatile double averageNanos;
+    private volatile double lastCpuLoad = -1;
+    private volatile long degradedSinceMillis;
+
+    private LatencyGuard() {
+        this.enabled = false;
+        this.budgetNanos = Long.MAX_VALUE;
+        this.cpuLimit = 1;
+        this.recoveryRatio = 1;
+        this.smoothing = 1;
+        this.checkIntervalNanos = Long.MAX_VALUE;
+        this.cpuLoad = () -> -1;
+        this.nextCheck = new AtomicLong(Long.MAX_VALUE);
+        this.transitions = null;
+    }
+
+    @Autowired
+    public LatencyGuard(MeterRegistry meterRegistry,
+                        @Value("${namematch.latency-guard.enabled:false}") boolean enabled,
+                        @Value("${namematch.latency-guard.budget:50ms}") Duration budget,
+                        @Value("${namematch.latency-guard.cpu-limit:0.9}") double cpuLimit,
+                        @Value("${namematch.latency-guard.recovery-ratio:0.7}") double recoveryRatio,
+                        @Value("${namematch.latency-guard.smoothing:0.3}") double smoothing,
+                        @Value("${namematch.latency-guard.check-interval:1s}") Duration checkInterval) {
+        if (recoveryRatio <= 0 || recoveryRatio > 1) {
+            throw new IllegalArgumentException("namematch.latency-guard.recovery-ratio must be in (0, 1]");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("namematch.latency-guard.smoothing must be in (0, 1]");
+        }
+        this.enabled = enabled;
+        this.budgetNanos = budget.toNanos();
+        this.cpuLimit = cpuLimit;
+        this.recoveryRatio = recoveryRatio;
+        this.smoothing = smoothing;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.cpuLoad = processCpuLoad();
+        this.nextCheck = new AtomicLong(System.nanoTime() + checkIntervalNanos);
+        this.transitions = Counter.builder("namematch.latency.guard.transitions")
+                .description("Times the latency guard entered degraded mode")
+                .register(meterRegistry);
+        Gauge.builder("namematch.latency.guard.degraded", this, guard -> guard.degraded ? 1 : 0)
+                .description("1 while fuzzy refinement is skipped to protect latency")
+                .register(meterRegistry);
+        Gauge.builder("namematch.latency.guard.average", this, guard -> guard.averageNanos / 1e9)
+                .description("Moving average of GET /nameMatchScore latency watched by the guard")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A guard that never degrades, for services built outside Spring (command line tools).
+     */
+    public static LatencyGuard disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Whether matchers should run their optional refinement stages.
+     */
+    public boolean allowsRefinement() {
+        if (degraded) {
+            checkIfDue();
+        }
+        return !degraded;
+    }
+
+    /**
+     * Records the latency of one request and, at the end of an interval, updates the mode.
+     */
+    public void record(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        windowNanos.add(nanos);
+        windowCount.increment();
+        checkIfDue();
+    }
+
+    private void checkIfDue() {
+        long now = System.nanoTime();
+        long due = nextCheck.get();
+        if (now - due >= 0 && nextCheck.compareAndSet(due, now + checkIntervalNanos)) {
+            check();
+        }
+    }
+
+    private void check() {
+        long count = windowCount.sumThenReset();
+        long total = windowNanos.sumThenReset();
+        double mean = count > 0 ? (double) total / count : 0;
+        averageNanos = averageNanos == 0 ? mean : smoothing * mean + (1 - smoothing) * averageNanos;
+        double cpu = cpuLoad.getAsDouble();
+        lastCpuLoad = cpu;
+
+        if (!degraded) {
+            if (averageNanos > budgetNanos || cpu > cpuLimit) {
+                degraded = true;
+                degradedSinceMillis = System.currentTimeMillis();
+                transitions.increment();
+                log.warn("Latency guard degraded: average latency {} ms, CPU load {}",
+                        TimeUnit.NANOSECONDS.toMillis((long) averageNanos), cpu);
+            }
+        } else if (averageNanos < budgetNanos * recoveryRatio && cpu < cpuLimit * recoveryRatio) {
+            degraded = false;
+            log.info("Latency guard recovered after {} ms: average latency {} ms, CPU load {}",
+                    System.currentTimeMillis() - degradedSinceMillis,
+                    TimeUnit.NANOSECONDS.toMillis((long) averageNanos), cpu);
+        }
+    }
+
+    /**
+     * Current state and settings, as shown by the actuator endpoint.
+     */
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", enabled);
+        state.put("degraded", degraded);
+        if (degraded) {
+            state.put("degradedSinceMillis", degradedSinceMillis);
+        }
+        state.put("averageLatencyMillis", averageNanos / 1e6);
+        state.put("cpuLoad", lastCpuLoad);
+        if (enabled) {
+            state.put("budgetMillis", budgetNanos / 1e6);
+            state.put("cpuLimit", cpuLimit);
+            state.put("recoveryRatio", recoveryRatio);
+            state.put("transitions", (long) transitions.count());
+        }
+        return state;
+    }
+
+    /**
+     * CPU load of this process from 0 to 1, or -1 where the JVM does not report it, which never
+     * triggers the guard.
+     */
+    private static DoubleSupplier processCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            com.sun.management.OperatingSystemMXBean sunOs = (com.sun.management.OperatingSystemMXBean) os;
+            return sunOs::getProcessCpuLoad;
+        }
+        return () -> -1;
+    }
+}
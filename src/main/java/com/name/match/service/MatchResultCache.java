@@ -0,0 +1,190 @@
+package com.name.match.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.name.match.model.MatchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Optional cache of scores in front of {@link NameMatcher#mainFunction}.
+ *
+ * Retries and re-verification flows score the same pair many times a day, so when
+ * {@code namematch.result-cache.enabled} is set the decision and score of each pair are kept for
+ * {@code namematch.result-cache.ttl}, up to roughly {@code namematch.result-cache.max-bytes} of heap.
+ *
+ * Degraded scores (see {@link LatencyGuard}) are returned but not cached.
+ *
+ * The key is the algorithm plus both names in order, so (a, b) and (b, a) are cached separately.
+ * ASCII names are lower-cased for the key, since both algorithms lower-case before scoring; other
+ * names are used as is because case mapping outside ASCII can depend on the surrounding
+ * characters. The result returned from the cache always carries the caller's original names.
+ *
+ * Hits, misses and evictions are published as {@code cache.*} meters with
+ * {@code cache=namematch.results}.
+ */
+@Component
+public class MatchResultCache {
+
+    /**
+     * Rough per-entry cost on top of the name characters: key, value, the key's Strings and the
+     * cache's own node.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private static final boolean ASCII_LOWER_CASE_SAFE =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase().equals("ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase(Locale.ROOT));
+
+    private final Cache<PairKey, CachedScore> scores;
+
+    @Autowired
+    public MatchResultCache(MeterRegistry meterRegistry,
+                            @Value("${namematch.result-cache.enabled:false}") boolean enabled,
+                            @Value("${namematch.result-cache.max-bytes:67108864}") long maxBytes,
+                            @Value("${namematch.result-cache.ttl:10m}") Duration ttl) {
+        if (!enabled) {
+            this.scores = null;
+            return;
+        }
+        this.scores = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((PairKey key, CachedScore value) -> key.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, scores, "namematch.results");
+    }
+
+    /**
+     * Whether the cache is switched on.
+     */
+    public boolean isEnabled() {
+        return scores != null;
+    }
+
+    /**
+     * Returns a matcher that answers from the cache when possible.
+     *
+     * @param matcher Matcher doing the actual scoring
+     * @param useCache false to force a fresh score, e.g. for audits; the fresh result still
+     *                 replaces the cached one
+     */
+    public NameMatcher apply(NameMatcher matcher, boolean useCache) {
+        if (scores == null) {
+            return matcher;
+        }
+        return new CachingNameMatcher(matcher, useCache);
+    }
+
+    private final class CachingNameMatcher implements NameMatcher {
+        private final NameMatcher delegate;
+        private final boolean useCache;
+
+        CachingNameMatcher(NameMatcher delegate, boolean useCache) {
+            this.delegate = delegate;
+            this.useCache = useCache;
+        }
+
+        @Override
+        public String algorithm() {
+            return delegate.algorithm();
+        }
+
+        @Override
+        public double toScore(double similarity) {
+            return delegate.toScore(similarity);
+        }
+
+        @Override
+        public MatchResult.Decision decide(double score) {
+            return delegate.decide(score);
+        }
+
+        @Override
+        public void mainFunction(String firstString, String secondString, MatchResult.Holder result) {
+            PairKey key = new PairKey(delegate.algorithm(), keyPart(firstString), keyPart(secondString));
+            if (useCache) {
+                CachedScore cached = scores.getIfPresent(key);
+                if (cached != null) {
+                    result.set(cached.decision, cached.score, cached.explanation);
+                    return;
+                }
+            }
+            delegate.mainFunction(firstString, secondString, result);
+            // Scores coarsened under load would outlive the load
+            if (!result.isDegraded()) {
+                scores.put(key, new CachedScore(result));
+            }
+        }
+    }
+
+    private static String keyPart(String name) {
+        if (name == null || !ASCII_LOWER_CASE_SAFE) {
+            return name;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                return name;
+            }
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PairKey {
+        private final String algorithm;
+        private final String name1;
+        private final String name2;
+        private final int hash;
+
+        PairKey(String algorithm, String name1, String name2) {
+            this.algorithm = algorithm;
+            this.name1 = name1;
+            this.name2 = name2;
+            this.hash = Objects.hash(algorithm, name1, name2);
+        }
+
+        int weight() {
+            int chars = (name1 == null ? 0 : name1.length()) + (name2 == null ? 0 : name2.length());
+            return ENTRY_OVERHEAD_BYTES + 2 * chars;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PairKey)) {
+                return false;
+            }
+            PairKey other = (PairKey) o;
+            return hash == other.hash
+                    && algorithm.equals(other.algorithm)
+                    && Objects.equals(name1, other.name1)
+                    && Objects.equals(name2, other.name2);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class CachedScore {
+        private final MatchResult.Decision decision;
+        private final double score;
+        private final String explanation;
+
+        CachedScore(MatchResult.Holder result) {
+            this.decision = result.getDecision();
+            this.score = result.getScore();
+            this.explanation = result.getExplanation();
+        }
+    }
+}
@@ -1,13 +1,58 @@
 package com.name.match.service;
 
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import com.name.match.metrics.MatchMetrics;
+import com.name.match.model.MatchResult;
+import com.name.match.reference.ReferenceStore;
+import com.name.match.util.BigramKernel;
+import com.name.match.util.FuzzyKernel;
+import com.name.match.util.NameNormalizer;
+import com.name.match.util.NormalizedName;
+import com.name.match.util.PhoneticKeys;
+import com.name.match.util.ThresholdScore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
 @Service
-public class NameMatchService {
+public class NameMatchService implements NameMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NameMatchService.class);
+
+    private static final ThreadLocal<NormalizedName[]> NAMES =
+            ThreadLocal.withInitial(() -> new NormalizedName[] { new NormalizedName(), new NormalizedName() });
+
+    private static final ThreadLocal<ReferenceStore.Record> REFERENCES = ThreadLocal.withInitial(ReferenceStore.Record::new);
+
+    private final MatchMetrics metrics;
+    private final PhoneticKeys phoneticKeys;
+    private final LatencyGuard latencyGuard;
+
+    /**
+     * Creates a service without metrics or latency guard, for use outside Spring.
+     */
+    public NameMatchService() {
+        this.metrics = MatchMetrics.noop("generic");
+        this.phoneticKeys = new PhoneticKeys(PhoneticKeys.DEFAULT_MAXIMUM_SIZE);
+        this.latencyGuard = LatencyGuard.disabled();
+    }
+
+    @Autowired
+    public NameMatchService(MeterRegistry meterRegistry, PhoneticKeys phoneticKeys, LatencyGuard latencyGuard,
+                            @Value("${namematch.metrics.trace-sample-rate:0}") double traceSampleRate) {
+        this.metrics = new MatchMetrics(meterRegistry, "generic", traceSampleRate);
+        this.phoneticKeys = phoneticKeys;
+        this.latencyGuard = latencyGuard;
+    }
+
+    @Override
+    public String algorithm() {
+        return "generic";
+    }
 
     /**
      * Evaluates phonetic and fuzzy similarity between two names to identify potential matches.
@@ -33,14 +78,21 @@ public class NameMatchService {
      * @return List containing "Manual" if the match requires human review, otherwise empty list
      */
     public List<String> soundexMatch(String name1, String name2, double matchScore) {
-        JaroWinklerSimilarity jaroWinkler = new JaroWinklerSimilarity();
-        double soundexScore = jaroWinkler.apply(soundex(name1), soundex(name2));
-        double match1 = FuzzySearch.ratio(name1, name2);
-        double match2 = FuzzySearch.partialRatio(name1, name2);
-
-        System.out.println("soundexScore : " + soundexScore);
-        System.out.println("match1 : " + match1);
-        System.out.println("match2 : " + match2);
+        return soundexMatch(name1, name2, soundex(name2), matchScore);
+    }
+
+    /**
+     * {@link #soundexMatch(String, String, double)} with the Soundex code of {@code name2} known.
+     */
+    private List<String> soundexMatch(String name1, String name2, String soundex2, double matchScore) {
+        double soundexScore = FuzzyKernel.jaroWinkler(soundex(name1), soundex2);
+        double match1 = FuzzyKernel.ratio(name1, name2);
+        double match2 = FuzzyKernel.partialRatio(name1, name2);
+
+        if (log.isDebugEnabled() && metrics.traceSampled()) {
+            log.debug("soundexScore : {}, match1 : {}, match2 : {}, matchScore : {}",
+                    soundexScore, match1, match2, matchScore);
+        }
         List<String> res = new ArrayList<>();
 
 
@@ -76,70 +128,14 @@ public class NameMatchService {
      * - "Smith" and "Smyth" both yield "S530"
      * 
      * This is essential for matching names that sound the same despite spelling variations.
+     * Codes come from {@link PhoneticKeys}, which computes them in one pass and caches them
+     * per name.
      * 
      * @param s Input name string to convert to Soundex code
      * @return Four-character Soundex code
      */
-    private String soundex(String s) {
-        char[] x = s.toUpperCase().toCharArray();
-        char firstLetter = x[0];
-
-        // Convert letters to digits
-        for (int i = 0; i < x.length; i++) {
-            switch (x[i]) {
-                case 'B':
-                case 'F':
-                case 'P':
-                case 'V':
-                    x[i] = '1';
-                    break;
-
-                case 'C':
-                case 'G':
-                case 'J':
-                case 'K':
-                case 'Q':
-                case 'S':
-                case 'X':
-                case 'Z':
-                    x[i] = '2';
-                    break;
-
-                case 'D':
-                case 'T':
-                    x[i] = '3';
-                    break;
-
-                case 'L':
-                    x[i] = '4';
-                    break;
-
-                case 'M':
-                case 'N':
-                    x[i] = '5';
-                    break;
-
-                case 'R':
-                    x[i] = '6';
-                    break;
-
-                default:
-                    x[i] = '0';
-                    break;
-            }
-        }
-
-        // Remove duplicates
-        String output = "" + firstLetter;
-        for (int i = 1; i < x.length; i++) {
-            if (x[i] != x[i-1] && x[i] != '0') {
-                output += x[i];
-            }
-        }
-
-        // Pad with zeros and truncate
-        output = output + "0000";
-        return output.substring(0, 4);
+    String soundex(String s) {
+        return phoneticKeys.soundex(s);
     }
 
     /**
@@ -155,29 +151,23 @@ public class NameMatchService {
      * - If length > 2: extracts all consecutive character pairs
      *   (e.g., "John" → "Jo", "oh", "hn")
      * 
-     * While the function tracks bigram frequencies in a map, it only returns the list
-     * of all generated bigrams without frequency information.
+     * mainFunction scores through {@link BigramKernel}, which packs the same doublets into ints;
+     * this list based form is kept for callers that need the doublet strings.
      * 
      * @param nameList List of name parts to generate bigrams from
      * @return List of all bigrams extracted from the input names
      */
     public List<String> makeDoublet(List<String> nameList) {
         List<String> duovaluenap = new ArrayList<>();
-        Map<String, Integer> duovaluemap = new HashMap<>();
 
         for (String i : nameList) {
             if (i.length() == 1) {
-                String str = String.valueOf(i.charAt(0));
-                duovaluenap.add(str);
-                duovaluemap.put(str, duovaluemap.getOrDefault(str, 0) + 1);
+                duovaluenap.add(String.valueOf(i.charAt(0)));
             } else if (i.length() == 2) {
                 duovaluenap.add(i);
-                duovaluemap.put(i, duovaluemap.getOrDefault(i, 0) + 1);
             } else {
                 for (int j = 0; j < i.length() - 1; j++) {
-                    String doublet = i.substring(j, j + 2);
-                    duovaluenap.add(doublet);
-                    duovaluemap.put(doublet, duovaluemap.getOrDefault(doublet, 0) + 1);
+                    duovaluenap.add(i.substring(j, j + 2));
                 }
             }
         }
@@ -229,69 +219,129 @@ public class NameMatchService {
     }
 
     /**
-     * Equivalent to MainFunction in Python code
+     * Equivalent to MainFunction in Python code. While the {@link LatencyGuard} is degraded the
+     * soundex stage is skipped and a bigram score in its band is returned as degraded.
      */
-    public Map<String, Object> mainFunction(String firstString, String secondString) {
-        String aadhaar = firstString;
-        String pan = secondString;
-        double score = 0;
-
-        String match;
-        if (aadhaar == null || aadhaar.isEmpty() || pan == null || pan.isEmpty()) {
-            score = 0;
-        } else {
-            aadhaar = aadhaar.replace(" ", "").toLowerCase().trim();
-            pan = pan.replace(" ", "").toLowerCase().trim();
-            
-            // Split would normally split by whitespace, but since we just replaced all spaces,
-            // create arrays with a single element for consistent behavior with Python
-            List<String> aadhaarArray = new ArrayList<>();
-            aadhaarArray.add(aadhaar);
-            
-            List<String> panArray = new ArrayList<>();
-            panArray.add(pan);
-            
-            Collections.sort(aadhaarArray);
-            Collections.sort(panArray);
-            List<String> tempPanArray = new ArrayList<>(aadhaarArray);
-            Collections.sort(tempPanArray);
-
-            if (aadhaar.equals(pan)) {
-                score = 100;
-            } else if (aadhaar.replace(" ", "").equals(pan.replace(" ", ""))) {
-                score = 100;
-            } else {
-                List<String> aadhaarNameDoublets = makeDoublet(aadhaarArray);
-                List<String> panNameDoublets = makeDoublet(panArray);
-                score = compareString(aadhaarNameDoublets, panNameDoublets);
-
-                if (score >= 40 && score <= 75) {
-                    try {
-                        List<String> output = soundexMatch(aadhaar, pan, score);
-                        if (!output.isEmpty()) {
-                            score = 40;
-                        }
-                    } catch (Exception e) {
-                        // Do nothing, similar to Python's pass
-                    }
-                }
+    @Override
+    public void mainFunction(String firstString, String secondString, MatchResult.Holder result) {
+        long start = System.nanoTime();
+        if (firstString == null || firstString.isEmpty() || secondString == null || secondString.isEmpty()) {
+            finish(0, MatchMetrics.Branch.EMPTY, false, result, start);
+            return;
+        }
+        NormalizedName[] names = NAMES.get();
+        NormalizedName first = NameNormalizer.generic(firstString, names[0]);
+        NormalizedName second = NameNormalizer.generic(secondString, names[1]);
+        score(first, second, null, result, start);
+    }
+
+    /**
+     * Same as {@link #mainFunction(String, String, MatchResult.Holder)} with the stored name as the
+     * second argument, using its stored normalization, doublets and Soundex code.
+     */
+    @Override
+    public void mainFunction(String firstString, ReferenceStore store, int id, MatchResult.Holder result) {
+        long start = System.nanoTime();
+        ReferenceStore.Record reference = store.readGeneric(id, REFERENCES.get());
+        if (firstString == null || firstString.isEmpty() || reference.isEmpty()) {
+            finish(0, MatchMetrics.Branch.EMPTY, false, result, start);
+            return;
+        }
+        NormalizedName first = NameNormalizer.generic(firstString, NAMES.get()[0]);
+        score(first, reference.normalized(), reference, result, start);
+    }
+
+    /**
+     * Scores two normalized names; {@code reference} holds the prepared second name, if any.
+     */
+    private void score(NormalizedName first, NormalizedName second, ReferenceStore.Record reference,
+                       MatchResult.Holder result, long start) {
+        if (first.contentEquals(second)) {
+            finish(100, MatchMetrics.Branch.EXACT, false, result, start);
+            return;
+        }
+        MatchMetrics.Branch branch = MatchMetrics.Branch.BIGRAM;
+        boolean degraded = false;
+        // All spaces are removed above, so each name is a single part and the packed
+        // kernel gives the same result as compareString(makeDoublet(...), makeDoublet(...))
+        double score = reference == null
+                ? BigramKernel.compare(first, second)
+                : BigramKernel.compareSorted(first, second, reference.bigrams(), reference.bigramCount());
+
+        if (score >= 40 && score <= 75) {
+            if (!latencyGuard.allowsRefinement()) {
+                degraded = true;
+            } else if (soundexOverride(first, second, reference, score)) {
+                score = 40;
+                branch = MatchMetrics.Branch.SOUNDEX_OVERRIDE;
             }
         }
+        finish(score, branch, degraded, result, start);
+    }
 
-        if (score >= 99) {
-            match = "Accept";
-        } else if (score >= 70) {
-            match = "Manual";
-        } else {
-            match = "Reject";
+    private void finish(double score, MatchMetrics.Branch branch, boolean degraded, MatchResult.Holder result,
+                        long start) {
+        result.set(decide(score), score, branch.tag(), degraded);
+        metrics.record(branch, score, start);
+    }
+
+    /**
+     * Decides whether {@link #mainFunction}'s match_score for the pair would be at least
+     * {@code threshold}, stopping as soon as that is known.
+     *
+     * The final score never exceeds the bigram score: the soundex stage can only lower a score in
+     * (40, 75] to 40. So a bigram score that cannot reach the threshold is a reject, and for
+     * thresholds outside (40, 75] a bigram score that reaches it is a pass, both decided by
+     * {@link BigramKernel#compareAtLeast}. Only a pass with a threshold inside that band needs the
+     * exact score and the soundex stage.
+     *
+     * @param threshold Score of interest, 0 to 100, e.g. 70 for Manual or 99 for Accept
+     * @return The decision, exact, and bounds on the match_score
+     */
+    public ThresholdScore screen(String firstString, String secondString, double threshold) {
+        if (firstString == null || firstString.isEmpty() || secondString == null || secondString.isEmpty()) {
+            return ThresholdScore.exact(threshold, 0);
+        }
+        NormalizedName[] names = NAMES.get();
+        NormalizedName first = NameNormalizer.generic(firstString, names[0]);
+        NormalizedName second = NameNormalizer.generic(secondString, names[1]);
+        if (first.contentEquals(second)) {
+            return ThresholdScore.exact(threshold, 100);
         }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("match", match);
-        result.put("match_score", score);
-        result.put("name1", firstString);
-        result.put("name2", secondString);
-        
-        return result;
+        ThresholdScore bigram = BigramKernel.compareAtLeast(first, second, threshold);
+        if (bigram.isReached() && threshold > 40 && threshold <= 75 && bigram.getLowerBound() <= 75) {
+            double score = BigramKernel.compare(first, second);
+            if (score >= 40 && score <= 75 && soundexOverride(first, second, score)) {
+                score = 40;
+            }
+            return ThresholdScore.exact(threshold, score);
+        }
+
+        // The soundex stage may still lower a score in (40, 75] to 40
+        double lower = bigram.getLowerBound();
+        if (bigram.getUpperBound() > 40 && lower <= 75) {
+            lower = Math.min(lower, 40);
+        }
+        return new ThresholdScore(threshold, bigram.isReached(), lower, bigram.getUpperBound());
+    }
+
+    /**
+     * Whether the soundex stage replaces a bigram score in the 40 to 75 band with 40.
+     */
+    private boolean soundexOverride(NormalizedName first, NormalizedName second, double score) {
+        return soundexOverride(first, second, null, score);
+    }
+
+    private boolean soundexOverride(NormalizedName first, NormalizedName second, ReferenceStore.Record reference,
+                                    double score) {
+        try {
+            String name2 = second.toString();
+            String soundex2 = reference == null ? soundex(name2) : reference.soundex();
+            return !soundexMatch(first.toString(), name2, soundex2, score).isEmpty();
+        } catch (Exception e) {
+            // Do nothing, similar to Python's pass
+            return false;
+        }
     }
 } 
\ No newline at end of file
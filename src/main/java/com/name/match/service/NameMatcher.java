@@ -0,0 +1,71 @@
+package com.name.match.service;
+
+import com.name.match.model.MatchResult;
+import com.name.match.reference.ReferenceStore;
+
+/**
+ * A name matching algorithm that can be selected per request.
+ *
+ * Each implementation is a stateless singleton built once at startup and looked up by
+ * {@link #algorithm()} through {@link NameMatcherRegistry}.
+ */
+public interface NameMatcher {
+
+    /**
+     * Name used to select this matcher, e.g. {@code algorithm=indian}.
+     */
+    String algorithm();
+
+    /**
+     * Scores two names into {@code result}, allocating nothing for the result itself.
+     *
+     * @param firstString First name to compare
+     * @param secondString Second name to compare
+     * @param result Receives the decision, score and explanation
+     */
+    void mainFunction(String firstString, String secondString, MatchResult.Holder result);
+
+    /**
+     * Scores two names.
+     *
+     * @param firstString First name to compare
+     * @param secondString Second name to compare
+     * @return Match decision, score, and original names, without explanation
+     */
+    default MatchResult mainFunction(String firstString, String secondString) {
+        MatchResult.Holder result = new MatchResult.Holder();
+        mainFunction(firstString, secondString, result);
+        return result.toResult(firstString, secondString, false);
+    }
+
+    /**
+     * Scores a name against a stored reference name, with the same result as
+     * {@code mainFunction(firstString, store.name(id), result)}. The services override this to
+     * use what the store has already prepared for the reference name instead of recomputing it.
+     *
+     * @param firstString Query name
+     * @param store Store holding the reference name
+     * @param id Id of the reference name in {@code store}
+     * @param result Receives the decision, score and explanation
+     * @throws IndexOutOfBoundsException for an unknown id
+     */
+    default void mainFunction(String firstString, ReferenceStore store, int id, MatchResult.Holder result) {
+        mainFunction(firstString, store.name(id), result);
+    }
+
+    /**
+     * Converts a similarity from 0 to 1 into this matcher's match_score scale, for scoring modes
+     * that compute a similarity of their own.
+     */
+    default double toScore(double similarity) {
+        return similarity * 100;
+    }
+
+    /**
+     * The decision for a match_score on this matcher's scale, the same one {@link #mainFunction}
+     * takes for that score.
+     */
+    default MatchResult.Decision decide(double score) {
+        return MatchResult.Decision.forPercentage(score);
+    }
+}
@@ -0,0 +1,63 @@
+package com.name.match.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the {@link NameMatcher} for an {@code algorithm} request parameter.
+ *
+ * The lookup table is built once from the matcher beans found at startup, so selecting an
+ * algorithm per request is a single map lookup.
+ */
+@Component
+public class NameMatcherRegistry {
+
+    /**
+     * Algorithm used when a request does not name one.
+     */
+    public static final String DEFAULT_ALGORITHM = "generic";
+
+    private final Map<String, NameMatcher> matchers;
+
+    @Autowired
+    public NameMatcherRegistry(List<NameMatcher> matchers) {
+        Map<String, NameMatcher> byAlgorithm = new LinkedHashMap<>();
+        for (NameMatcher matcher : matchers) {
+            NameMatcher previous = byAlgorithm.put(matcher.algorithm(), matcher);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate name matcher for algorithm: " + matcher.algorithm());
+            }
+        }
+        if (!byAlgorithm.containsKey(DEFAULT_ALGORITHM)) {
+            throw new IllegalStateException("No name matcher registered for default algorithm: " + DEFAULT_ALGORITHM);
+        }
+        this.matchers = Collections.unmodifiableMap(byAlgorithm);
+    }
+
+    /**
+     * Returns the matcher for {@code algorithm}, or the default matcher when it is null or empty.
+     *
+     * @throws IllegalArgumentException if no matcher is registered under that name
+     */
+    public NameMatcher get(String algorithm) {
+        String key = algorithm == null || algorithm.isEmpty() ? DEFAULT_ALGORITHM : algorithm.toLowerCase();
+        NameMatcher matcher = matchers.get(key);
+        if (matcher == null) {
+            throw new IllegalArgumentException("Unknown algorithm '" + algorithm + "', expected one of " + matchers.keySet());
+        }
+        return matcher;
+    }
+
+    /**
+     * All registered matchers.
+     */
+    public Collection<NameMatcher> all() {
+        return matchers.values();
+    }
+}
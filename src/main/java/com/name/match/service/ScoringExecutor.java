@@ -0,0 +1,92 @@
+package com.name.match.service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the scoring part of an HTTP request, either on the calling thread or on a fixed pool of
+ * platform threads.
+ *
+ * The matchers avoid allocation by keeping their scratch buffers in {@code ThreadLocal}s
+ * ({@code NameMatchService}, {@code BigramKernel}, {@code DoubletMultiset}, {@code FuzzyKernel},
+ * {@code TokenAligner}, {@code NameIndex}). On Tomcat's pool those are created once per thread. With
+ * one new virtual thread per request they would be created, and dropped, on every request, so when
+ * requests are served on virtual threads scoring is handed to {@link #pooled(int)} threads instead:
+ * the buffers stay warm, and CPU bound scoring runs on as many threads as there are cores however
+ * many requests are waiting. The handing over parks the virtual thread, which costs no platform
+ * thread while it waits.
+ */
+public final class ScoringExecutor {
+
+    private static final ScoringExecutor DIRECT = new ScoringExecutor(null);
+
+    private final ExecutorService pool;
+
+    private ScoringExecutor(ExecutorService pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Scores on the calling thread, for platform request threads.
+     */
+    public static ScoringExecutor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Scores on {@code threads} platform threads, or one per available processor for 0.
+     */
+    public static ScoringExecutor pooled(int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        return new ScoringExecutor(Executors.newFixedThreadPool(size, task -> {
+            Thread thread = new Thread(task, "namematch-scoring-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Runs {@code task} and returns its result. Exceptions thrown by the task reach the caller as
+     * they are.
+     */
+    public <T> T call(Supplier<T> task) {
+        if (pool == null) {
+            return task.get();
+        }
+        Future<T> future = pool.submit(task::get);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for scoring", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Stops the pool, if any. Called by Spring on shutdown.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.name.match.service;
+
+import java.util.Locale;
+
+/**
+ * How a matcher's score is computed, selected per request with {@code mode}.
+ */
+public enum ScoringMode {
+
+    /**
+     * The algorithm's own score.
+     */
+    STANDARD("standard"),
+
+    /**
+     * The higher of the algorithm's score and the {@link com.name.match.util.TokenAligner}
+     * alignment of the name parts, so reordered parts and expanded initials are recognized.
+     */
+    TOKEN_ALIGNMENT("alignment");
+
+    private final String parameter;
+
+    ScoringMode(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Parses a {@code mode} request parameter; null or empty means {@link #STANDARD}.
+     *
+     * @throws IllegalArgumentException for an unknown mode
+     */
+    public static ScoringMode fromParameter(String mode) {
+        if (mode == null || mode.isEmpty()) {
+            return STANDARD;
+        }
+        for (ScoringMode value : values()) {
+            if (value.parameter.equals(mode.toLowerCase(Locale.ROOT))) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown mode '" + mode + "', expected standard or alignment");
+    }
+
+    /**
+     * Returns a matcher that scores with this mode on top of {@code matcher}.
+     */
+    public NameMatcher apply(NameMatcher matcher) {
+        return this == TOKEN_ALIGNMENT ? new TokenAlignmentMatcher(matcher) : matcher;
+    }
+}
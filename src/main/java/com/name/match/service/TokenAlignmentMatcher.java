@@ -0,0 +1,54 @@
+package com.name.match.service;
+
+import com.name.match.model.MatchResult;
+import com.name.match.util.TokenAligner;
+
+/**
+ * {@link ScoringMode#TOKEN_ALIGNMENT} on top of another matcher.
+ *
+ * The delegate scores the pair first. Unless that is already an Accept, the token alignment is
+ * computed with the delegate's score as the floor, so pairs whose parts cannot align better are
+ * settled from the cheap upper bound alone. A better alignment replaces the score, with the
+ * decision the delegate {@linkplain NameMatcher#decide decides} for it and the explanation
+ * {@code token-alignment}.
+ */
+class TokenAlignmentMatcher implements NameMatcher {
+
+    static final String EXPLANATION = "token-alignment";
+
+    private final NameMatcher delegate;
+    private final double fullScore;
+
+    TokenAlignmentMatcher(NameMatcher delegate) {
+        this.delegate = delegate;
+        this.fullScore = delegate.toScore(1);
+    }
+
+    @Override
+    public String algorithm() {
+        return delegate.algorithm();
+    }
+
+    @Override
+    public double toScore(double similarity) {
+        return delegate.toScore(similarity);
+    }
+
+    @Override
+    public MatchResult.Decision decide(double score) {
+        return delegate.decide(score);
+    }
+
+    @Override
+    public void mainFunction(String firstString, String secondString, MatchResult.Holder result) {
+        delegate.mainFunction(firstString, secondString, result);
+        if (result.getDecision() == MatchResult.Decision.ACCEPT) {
+            return;
+        }
+        double similarity = TokenAligner.similarityAbove(firstString, secondString, result.getScore() / fullScore);
+        double score = delegate.toScore(similarity);
+        if (score > result.getScore()) {
+            result.set(delegate.decide(score), score, EXPLANATION, result.isDegraded());
+        }
+    }
+}
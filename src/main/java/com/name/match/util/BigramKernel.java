@@ -0,0 +1,312 @@
+package com.name.match.util;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free bigram scoring kernel.
+ *
+ * The list based {@code makeDoublet}/{@code compareString} pair in NameMatchService creates a
+ * substring per bigram and then intersects the two lists with {@code contains}/{@code remove},
+ * which is quadratic in the name length. This kernel produces exactly the same score by packing
+ * every doublet into a single {@code int}:
+ *
+ * - A bigram "xy" is packed as {@code (x << 16) | y}, i.e. both UTF-16 chars side by side
+ * - A single character name "x" is packed as {@code 0xFFFF0000 | x}
+ *
+ * Every int is already a possible bigram, so the code of a single character name is the same as that
+ * of the bigram U+FFFF followed by that character, and U+FFFF can arrive in a request. makeDoublet
+ * keeps such a name as a one-char string, which only ever equals the same one-char string. The
+ * scoring methods therefore decide any pair with a single character name from the names themselves,
+ * before codes are compared; the single character code only keeps stored doublets and
+ * {@link #doubletCount} consistent.
+ *
+ * Both packed arrays are sorted and intersected with a single linear merge. Counting the merge
+ * hits gives the same multiset intersection that the list based implementation computes, and the
+ * score is derived with the same arithmetic so results are bit-for-bit identical. The merge can be
+ * swapped for a SIMD implementation, see {@link Intersector}.
+ *
+ * The packing buffers are kept per thread and only grow, so steady state scoring does not allocate.
+ */
+public final class BigramKernel {
+
+    private static final int SINGLE_CHAR_TAG = 0xFFFF0000;
+
+    private static final Intersector INTERSECTOR = Intersector.preferred();
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private BigramKernel() {
+    }
+
+    /**
+     * Packs two adjacent UTF-16 chars into one bigram code.
+     */
+    public static int pack(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    /**
+     * Packs a name that consists of a single character. The code is not distinct from every bigram,
+     * see the class comment.
+     */
+    public static int packSingle(char c) {
+        return SINGLE_CHAR_TAG | c;
+    }
+
+    /**
+     * Returns how many doublets {@code makeDoublet} produces for a name part of the given length.
+     */
+    public static int doubletCount(int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        return length == 1 ? 1 : length - 1;
+    }
+
+    /**
+     * Writes the packed doublets of {@code s[from, to)} into {@code out} starting at {@code offset}.
+     * Follows the same rules as {@code makeDoublet}: one char yields itself, two or more chars yield
+     * every consecutive pair.
+     *
+     * @return Number of codes written
+     */
+    public static int doublets(CharSequence s, int from, int to, int[] out, int offset) {
+        int length = to - from;
+        if (length <= 0) {
+            return 0;
+        }
+        if (length == 1) {
+            out[offset] = packSingle(s.charAt(from));
+            return 1;
+        }
+        char previous = s.charAt(from);
+        for (int i = from + 1; i < to; i++) {
+            char current = s.charAt(i);
+            out[offset++] = pack(previous, current);
+            previous = current;
+        }
+        return length - 1;
+    }
+
+    /**
+     * Counts the multiset intersection of two sorted code arrays with the
+     * {@linkplain Intersector#preferred() selected} {@link Intersector}.
+     *
+     * @param a Sorted codes of the first name
+     * @param aLength Number of valid entries in {@code a}
+     * @param b Sorted codes of the second name
+     * @param bLength Number of valid entries in {@code b}
+     * @return Number of codes present in both, each occurrence counted at most once
+     */
+    public static int intersect(int[] a, int aLength, int[] b, int bLength) {
+        return INTERSECTOR.intersect(a, aLength, b, bLength);
+    }
+
+    /**
+     * Converts a match count into the percentage returned by {@code compareString}: matches divided
+     * by the size of the smaller doublet list, or 0 when that list is empty.
+     */
+    public static double score(int match, int aLength, int bLength) {
+        int total = Math.min(aLength, bLength);
+        if (total != 0) {
+            return (match / (double) total) * 100;
+        }
+        return 0;
+    }
+
+    /**
+     * Scores two already normalized names. Equivalent to
+     * {@code compareString(makeDoublet(List.of(a)), makeDoublet(List.of(b)))}.
+     *
+     * @param a First normalized name
+     * @param b Second normalized name
+     * @return Similarity percentage from 0-100
+     */
+    public static double compare(CharSequence a, CharSequence b) {
+        if (hasSingle(a, b)) {
+            return compareSingle(a, b);
+        }
+        Scratch scratch = SCRATCH.get();
+        int[] left = scratch.left(doubletCount(a.length()));
+        int[] right = scratch.right(doubletCount(b.length()));
+
+        int leftLength = doublets(a, 0, a.length(), left, 0);
+        int rightLength = doublets(b, 0, b.length(), right, 0);
+        Arrays.sort(left, 0, leftLength);
+        Arrays.sort(right, 0, rightLength);
+
+        int match = intersect(left, leftLength, right, rightLength);
+        return score(match, leftLength, rightLength);
+    }
+
+    /**
+     * Scores a normalized name against the sorted doublets of another, computed earlier with
+     * {@link #doublets} and sorted. Same result as {@link #compare(CharSequence, CharSequence)}.
+     *
+     * @param a First normalized name
+     * @param bName Second normalized name
+     * @param b Sorted codes of {@code bName}
+     * @param bLength Number of valid entries in {@code b}
+     * @return Similarity percentage from 0-100
+     */
+    public static double compareSorted(CharSequence a, CharSequence bName, int[] b, int bLength) {
+        if (hasSingle(a, bName)) {
+            return compareSingle(a, bName);
+        }
+        int[] left = SCRATCH.get().left(doubletCount(a.length()));
+        int leftLength = doublets(a, 0, a.length(), left, 0);
+        Arrays.sort(left, 0, leftLength);
+        return score(intersect(left, leftLength, b, bLength), leftLength, bLength);
+    }
+
+    /**
+     * Decides whether {@link #compare(CharSequence, CharSequence)} would be at least
+     * {@code threshold}, doing only as much work as the decision needs.
+     *
+     * Each name's doublets are first summarized in a 64-bit signature, one bit per hashed code.
+     * A code whose bit is missing from the other name's signature cannot match, so counting those
+     * gives an upper bound on the matches without sorting anything; most clear rejects stop here.
+     * Otherwise the sorted codes are merged as usual, but the merge stops as soon as enough
+     * matches are found or the remaining codes can no longer supply them.
+     *
+     * @param a First normalized name
+     * @param b Second normalized name
+     * @param threshold Score of interest, 0 to 100
+     * @return The decision, exact, and bounds on the score, exact if the merge ran to the end
+     */
+    public static ThresholdScore compareAtLeast(CharSequence a, CharSequence b, double threshold) {
+        int aCount = doubletCount(a.length());
+        int bCount = doubletCount(b.length());
+        int total = Math.min(aCount, bCount);
+        if (total == 0) {
+            return ThresholdScore.exact(threshold, 0);
+        }
+        if (hasSingle(a, b)) {
+            return ThresholdScore.exact(threshold, compareSingle(a, b));
+        }
+
+        int needed = matchesNeeded(threshold, aCount, bCount);
+        if (needed == 0) {
+            return new ThresholdScore(threshold, true, 0, 100);
+        }
+        if (needed > total) {
+            return new ThresholdScore(threshold, false, 0, score(total, aCount, bCount));
+        }
+
+        Scratch scratch = SCRATCH.get();
+        int[] left = scratch.left(aCount);
+        int[] right = scratch.right(bCount);
+        doublets(a, 0, a.length(), left, 0);
+        doublets(b, 0, b.length(), right, 0);
+
+        long leftSignature = signature(left, aCount);
+        long rightSignature = signature(right, bCount);
+        int possible = Math.min(total, Math.min(
+                aCount - missing(left, aCount, rightSignature),
+                bCount - missing(right, bCount, leftSignature)));
+        if (possible < needed) {
+            return new ThresholdScore(threshold, false, 0, score(possible, aCount, bCount));
+        }
+
+        Arrays.sort(left, 0, aCount);
+        Arrays.sort(right, 0, bCount);
+        int i = 0;
+        int j = 0;
+        int match = 0;
+        while (i < aCount && j < bCount
+                && match < needed
+                && match + Math.min(aCount - i, bCount - j) >= needed) {
+            int x = left[i];
+            int y = right[j];
+            if (x == y) {
+                match++;
+                i++;
+                j++;
+            } else if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int upper = Math.min(possible, match + Math.min(aCount - i, bCount - j));
+        return new ThresholdScore(threshold, match >= needed, score(match, aCount, bCount), score(upper, aCount, bCount));
+    }
+
+    /**
+     * Whether one of two non-empty names is a single character.
+     */
+    private static boolean hasSingle(CharSequence a, CharSequence b) {
+        return a.length() > 0 && b.length() > 0 && (a.length() == 1 || b.length() == 1);
+    }
+
+    /**
+     * Score of a pair with a single character name: that name's one doublet is the character itself,
+     * which matches only the same single character name, never a bigram.
+     */
+    private static double compareSingle(CharSequence a, CharSequence b) {
+        int match = a.length() == b.length() && a.charAt(0) == b.charAt(0) ? 1 : 0;
+        return score(match, 1, 1);
+    }
+
+    /**
+     * Smallest match count whose {@link #score} reaches {@code threshold}, or more than the smaller
+     * count if none does. Worked out with the same arithmetic as the score, so the decision agrees
+     * exactly with comparing the full score.
+     */
+    private static int matchesNeeded(double threshold, int aLength, int bLength) {
+        int total = Math.min(aLength, bLength);
+        int needed = (int) Math.max(0, Math.min(total + 1, Math.ceil(threshold * total / 100)));
+        while (needed > 0 && score(needed - 1, aLength, bLength) >= threshold) {
+            needed--;
+        }
+        while (needed <= total && score(needed, aLength, bLength) < threshold) {
+            needed++;
+        }
+        return needed;
+    }
+
+    private static long signature(int[] codes, int length) {
+        long signature = 0;
+        for (int i = 0; i < length; i++) {
+            signature |= 1L << bit(codes[i]);
+        }
+        return signature;
+    }
+
+    private static int missing(int[] codes, int length, long otherSignature) {
+        int missing = 0;
+        for (int i = 0; i < length; i++) {
+            missing += (int) (~otherSignature >>> bit(codes[i])) & 1;
+        }
+        return missing;
+    }
+
+    /**
+     * Signature bit of a code: the top six bits of a multiplicative hash.
+     */
+    private static int bit(int code) {
+        return (code * 0x9E3779B9) >>> 26;
+    }
+
+    /**
+     * Per-thread packing buffers. They grow to the longest name seen and are then reused.
+     */
+    private static final class Scratch {
+        private int[] left = new int[64];
+        private int[] right = new int[64];
+
+        int[] left(int size) {
+            if (left.length < size) {
+                left = new int[Math.max(size, left.length * 2)];
+            }
+            return left;
+        }
+
+        int[] right(int size) {
+            if (right.length < size) {
+                right = new int[Math.max(size, right.length * 2)];
+            }
+            return right;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.name.match.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.name.match.io.CsvPairReader;
+import com.name.match.model.MatchResult;
+import com.name.match.service.IndianNameMatchService;
+import com.name.match.service.NameMatchService;
+import com.name.match.service.NameMatcher;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utility class for comparing results between Java and Python implementations.
+ *
+ * Every case is scored by the Java matcher and by the Python MainFunction, and the cases where the
+ * decision differs or the scores are further apart than the tolerance are written to an NDJSON file
+ * as they are found. Python runs in a pool of long-lived {@code parity_worker.py} processes that
+ * answer one JSON line per case, so the interpreter and the module are loaded once per worker
+ * rather than once per case. Each worker thread sends a batch of cases to its process, scores the
+ * same batch in Java while Python works, then reads the answers.
+ *
+ * <pre>
+ * java -Dloader.main=com.name.match.util.ComparisonTool -cp name-match.jar \
+ *      org.springframework.boot.loader.PropertiesLauncher
+ *      [--algorithm=generic|indian] [--python=name_match_score.py] [--python-command=python3]
+ *      [--input=cases.csv | --generate=1000000 [--seed=1]] [--workers=N] [--tolerance=0.01]
+ *      [--output=parity_diffs.ndjson] [--worker=parity_worker.py]
+ * </pre>
+ *
+ * Without {@code --input} or {@code --generate} the predefined Indian name cases below are used.
+ * Generated cases depend only on the seed and their test_id, so any reported diff can be
+ * reproduced on its own.
+ */
+public class ComparisonTool {
+
+    /**
+     * Cases sent to a worker before reading its answers. Small enough that the answers always fit
+     * in the pipe buffer, so the worker never blocks on writing while we are still sending.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Generates a predefined set of Indian name test cases.
+     * @return Test cases with name1, name2, and description
+     */
+    public static List<CsvPairReader.TestCase> generateIndianNameTestCases() {
+        List<CsvPairReader.TestCase> testCases = new ArrayList<>();
+
+        // Common South Indian test cases
+        addTestCase(testCases, "Venkatanarasimharajuvaripeta", "Venkata Narasimha Raju Varipeta", "Long South Indian name with/without spaces");
+        addTestCase(testCases, "Sri Krishna", "SriKrishna", "Sri prefix with/without space");
+        addTestCase(testCases, "T.N. Seshan", "Tirunellai Narayana Seshan", "Initials expanded");
+        addTestCase(testCases, "A.P.J. Abdul Kalam", "Abdul Kalam", "Multiple initials vs name without initials");
+        addTestCase(testCases, "Rajinikanth", "Shivaji Rao Gaekwad", "Stage name vs birth name");
+
+        // Common North Indian test cases
+        addTestCase(testCases, "Sharma Rahul", "Rahul Sharma", "Inverted name order");
+        addTestCase(testCases, "Lal Krishna Advani", "L.K. Advani", "Full name vs initials");
+        addTestCase(testCases, "Narendra Damodardas Modi", "N.D. Modi", "Full middle name vs initials");
+        addTestCase(testCases, "Rajnath Singh", "R. Singh", "First name as initial");
+
+        // Phonetic variations in Indian names
+        addTestCase(testCases, "Lakshmi", "Laxmi", "Common phonetic variation (ksh/x)");
+        addTestCase(testCases, "Saurabh", "Saurav", "Common phonetic variation (bh/v)");
+        addTestCase(testCases, "Shyam", "Syam", "Common phonetic variation (sh/s)");
+        addTestCase(testCases, "Krishan", "Krishna", "Common phonetic variation (a/an)");
+        addTestCase(testCases, "Kamath", "Kamat", "Common phonetic variation (th/t)");
+
+        // Name parts with dots and variations
+        addTestCase(testCases, "Dr. Rajendra Prasad", "R. Prasad", "Salutation and initial");
+        addTestCase(testCases, "B.R. Ambedkar", "Bhimrao Ramji Ambedkar", "Initials vs full name");
+        addTestCase(testCases, "M.S. Subbulakshmi", "M.S. Subalakshmi", "Spelling variation with initials");
+        addTestCase(testCases, "C.V. Raman", "Chandrasekhara Venkata Raman", "Initials vs full name");
+
+        // Special character handling
+        addTestCase(testCases, "Ram (Krishna) Sharma", "Ram Sharma", "Name with parentheses");
+        addTestCase(testCases, "Sita.Patel", "Sita Patel", "Name with dot instead of space");
+        addTestCase(testCases, "Jaya-prakash Narayan", "Jayaprakash Narayan", "Name with hyphen");
+        addTestCase(testCases, "AISHWARYA RAI", "aishwarya rai", "Name with all caps");
+        addTestCase(testCases, "amitabh  bachan", "Amitabh Bachan", "Name with multiple spaces");
+
+        // Edge cases
+        addTestCase(testCases, "", "", "Both empty");
+        addTestCase(testCases, null, null, "Both null");
+        addTestCase(testCases, "Raj", "", "One empty");
+        addTestCase(testCases, "S", "S.", "Single character with/without dot");
+
+        return testCases;
+    }
+
+    /**
+     * Runs test cases using both the Java and Python implementations and streams the differences.
+     *
+     * @param cases Cases to compare, consumed lazily
+     * @param matcher Java implementation
+     * @param pythonCommand Command that starts one worker, e.g. python3 parity_worker.py name_match_score.py
+     * @param workers Number of Python processes, each driven by its own thread
+     * @param tolerance Largest score difference that still counts as equal
+     * @param outputPath NDJSON file that receives one line per difference
+     * @return Number of differences found
+     */
+    public static long compareImplementations(Iterator<CsvPairReader.TestCase> cases, NameMatcher matcher,
+                                              List<String> pythonCommand, int workers, double tolerance,
+                                              Path outputPath) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong compared = new AtomicLong();
+        AtomicLong differences = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try (DiffWriter diffs = new DiffWriter(outputPath)) {
+            List<Future<?>> running = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                running.add(executor.submit((Callable<Void>) () -> {
+                    try (PythonWorker python = new PythonWorker(pythonCommand)) {
+                        compareBatches(cases, matcher, python, tolerance, diffs, compared, differences, start);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Compared %d cases in %.1f s (%.0f cases/s)%n",
+                compared.get(), seconds, compared.get() / Math.max(seconds, 1e-9));
+        return differences.get();
+    }
+
+    private static void compareBatches(Iterator<CsvPairReader.TestCase> cases, NameMatcher matcher,
+                                       PythonWorker python, double tolerance, DiffWriter diffs,
+                                       AtomicLong compared, AtomicLong differences, long start) throws IOException {
+        List<CsvPairReader.TestCase> batch = new ArrayList<>(BATCH_SIZE);
+        MatchResult.Holder[] javaResults = new MatchResult.Holder[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            javaResults[i] = new MatchResult.Holder();
+        }
+
+        while (true) {
+            batch.clear();
+            synchronized (cases) {
+                while (batch.size() < BATCH_SIZE && cases.hasNext()) {
+                    batch.add(cases.next());
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            python.send(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                matcher.mainFunction(batch.get(i).getName1(), batch.get(i).getName2(), javaResults[i]);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                CsvPairReader.TestCase testCase = batch.get(i);
+                JsonNode pythonResult = python.receive(testCase.getTestId());
+                MatchResult.Holder javaResult = javaResults[i];
+
+                boolean matchEquals = javaResult.getDecision().label().equals(pythonResult.path("match").asText(null));
+                JsonNode pythonScore = pythonResult.get("match_score");
+                boolean scoreEquals = pythonScore != null && pythonScore.isNumber()
+                        && Math.abs(javaResult.getScore() - pythonScore.asDouble()) <= tolerance;
+                if (!matchEquals || !scoreEquals) {
+                    differences.incrementAndGet();
+                    diffs.write(testCase, javaResult, pythonResult, matchEquals, scoreEquals);
+                }
+            }
+
+            long done = compared.addAndGet(batch.size());
+            if (done / PROGRESS_INTERVAL != (done - batch.size()) / PROGRESS_INTERVAL) {
+                System.out.printf("%d cases compared, %d differences, %.0f cases/s%n", done, differences.get(),
+                        done / Math.max((System.nanoTime() - start) / 1e9, 1e-9));
+            }
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while comparing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Comparison failed", e.getCause());
+        }
+    }
+
+    /**
+     * One {@code parity_worker.py} process and its pipes.
+     */
+    private static final class PythonWorker implements Closeable {
+        private final Process process;
+        private final BufferedWriter requests;
+        private final BufferedReader responses;
+
+        PythonWorker(List<String> command) throws IOException {
+            this.process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            this.requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.responses = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(List<CsvPairReader.TestCase> batch) throws IOException {
+            Map<String, Object> request = new HashMap<>();
+            for (CsvPairReader.TestCase testCase : batch) {
+                request.put("id", testCase.getTestId());
+                request.put("name1", testCase.getName1());
+                request.put("name2", testCase.getName2());
+                requests.write(MAPPER.writeValueAsString(request));
+                requests.write('\n');
+            }
+            requests.flush();
+        }
+
+        JsonNode receive(long expectedId) throws IOException {
+            String line = responses.readLine();
+            if (line == null) {
+                throw new IOException("Python worker exited" + exitStatus());
+            }
+            JsonNode response = MAPPER.readTree(line);
+            if (response.path("id").asLong(-1) != expectedId) {
+                throw new IOException("Python worker answered " + line + " while case " + expectedId + " was expected");
+            }
+            return response;
+        }
+
+        private String exitStatus() {
+            try {
+                return process.waitFor() == 0 ? "" : " with status " + process.exitValue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "";
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                requests.close();
+            } finally {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Differences as NDJSON, flushed line by line so a long run can be watched or stopped early.
+     */
+    private static final class DiffWriter implements Closeable {
+        private final JsonGenerator generator;
+
+        DiffWriter(Path path) throws IOException {
+            this.generator = new JsonFactory().createGenerator(Files.newOutputStream(path), JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+        }
+
+        synchronized void write(CsvPairReader.TestCase testCase, MatchResult.Holder javaResult, JsonNode pythonResult,
+                                boolean matchEquals, boolean scoreEquals) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("test_id", testCase.getTestId());
+            generator.writeStringField("name1", testCase.getName1());
+            generator.writeStringField("name2", testCase.getName2());
+            generator.writeStringField("description", testCase.getDescription());
+            generator.writeStringField("java_match", javaResult.getDecision().label());
+            generator.writeNumberField("java_score", javaResult.getScore());
+            if (pythonResult.has("error")) {
+                generator.writeStringField("python_error", pythonResult.get("error").asText());
+            } else {
+                generator.writeFieldName("python_match");
+                MAPPER.writeTree(generator, pythonResult.path("match"));
+                generator.writeFieldName("python_score");
+                MAPPER.writeTree(generator, pythonResult.path("match_score"));
+            }
+            generator.writeBooleanField("match_equals", matchEquals);
+            generator.writeBooleanField("score_equals", scoreEquals);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Random name pairs for large parity runs: a name built from common Indian and English name
+     * parts, against a variant of it produced by one or two edits of the kinds the test CSVs cover.
+     * Case {@code i} is derived from {@code seed} and {@code i} alone.
+     */
+    static final class GeneratedCases implements Iterator<CsvPairReader.TestCase> {
+        private static final String[] FIRST_NAMES = {
+                "Rahul", "Priya", "Amit", "Sunita", "Venkata", "Lakshmi", "Saurabh", "Krishna", "Shyam",
+                "Mohammed", "Fatima", "Gurpreet", "Anjali", "Subramanian", "Ramesh", "Kavitha", "Aishwarya",
+                "John", "Mary", "William", "Robert", "Elizabeth", "Jose", "Sean", "Ankit", "Sumit", "Deepak"
+        };
+        private static final String[] MIDDLE_NAMES = {
+                "Kumar", "Devi", "Prasad", "Narayana", "Lal", "Singh", "Rao", "Chandra", "Michael", "Ann"
+        };
+        private static final String[] LAST_NAMES = {
+                "Sharma", "Patel", "Reddy", "Iyer", "Nair", "Gupta", "Khan", "Kamath", "Subbulakshmi",
+                "Chatterjee", "Banerjee", "Agarwal", "Jain", "Doe", "Smith", "O'Brien", "Garcia", "Bachan"
+        };
+        private static final String[] TITLES = { "Mr.", "Mrs.", "Dr.", "Shri", "Smt." };
+        private static final String[][] PHONETIC = {
+                { "ksh", "x" }, { "v", "bh" }, { "bh", "v" }, { "sh", "s" }, { "th", "t" }, { "ee", "i" },
+                { "oo", "u" }, { "w", "v" }, { "ph", "f" }
+        };
+        private static final String[] EDITS = {
+                "same", "case", "spaces", "no spaces", "swap", "initial", "drop middle", "typo", "phonetic",
+                "dots", "title", "parentheses", "different name", "empty", "null"
+        };
+
+        private final long count;
+        private final long seed;
+        private long next = 1;
+
+        GeneratedCases(long count, long seed) {
+            this.count = count;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next <= count;
+        }
+
+        @Override
+        public CsvPairReader.TestCase next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long testId = next++;
+            SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + testId);
+            String name = name(random);
+            String variant = name;
+            StringBuilder description = new StringBuilder();
+            int edits = random.nextInt(4) == 0 ? 2 : 1;
+            for (int i = 0; i < edits && variant != null; i++) {
+                String edit = EDITS[random.nextInt(EDITS.length)];
+                variant = edit(edit, variant, random);
+                description.append(description.length() == 0 ? "" : " + ").append(edit);
+            }
+            return random.nextBoolean()
+                    ? new CsvPairReader.TestCase(testId, name, variant, description.toString())
+                    : new CsvPairReader.TestCase(testId, variant, name, description.toString());
+        }
+
+        private static String name(SplittableRandom random) {
+            StringBuilder name = new StringBuilder(pick(FIRST_NAMES, random));
+            if (random.nextInt(3) == 0) {
+                name.append(' ').append(pick(MIDDLE_NAMES, random));
+            }
+            return name.append(' ').append(pick(LAST_NAMES, random)).toString();
+        }
+
+        private static String edit(String edit, String name, SplittableRandom random) {
+            List<String> parts = new ArrayList<>(Arrays.asList(name.trim().split(" +")));
+            switch (edit) {
+                case "case":
+                    return random.nextBoolean() ? name.toUpperCase() : name.toLowerCase();
+                case "spaces":
+                    return name.replace(" ", "  ");
+                case "no spaces":
+                    return name.replace(" ", "");
+                case "swap":
+                    Collections.swap(parts, 0, parts.size() - 1);
+                    return String.join(" ", parts);
+                case "initial": {
+                    int i = random.nextInt(parts.size());
+                    String part = parts.get(i);
+                    parts.set(i, part.isEmpty() ? part : part.charAt(0) + (random.nextBoolean() ? "." : ""));
+                    return String.join(" ", parts);
+                }
+                case "drop middle":
+                    if (parts.size() > 2) {
+                        parts.remove(1);
+                    }
+                    return String.join(" ", parts);
+                case "typo":
+                    return typo(name, random);
+                case "phonetic":
+                    for (String[] rule : PHONETIC) {
+                        if (name.contains(rule[0]) && random.nextBoolean()) {
+                            return name.replaceFirst(rule[0], rule[1]);
+                        }
+                    }
+                    return name;
+                case "dots":
+                    return name.replace(" ", ".");
+                case "title":
+                    return pick(TITLES, random) + " " + name;
+                case "parentheses":
+                    return parts.size() > 2
+                            ? parts.get(0) + " (" + parts.get(1) + ") " + String.join(" ", parts.subList(2, parts.size()))
+                            : "(" + name + ")";
+                case "different name":
+                    return name(random);
+                case "empty":
+                    return "";
+                case "null":
+                    return null;
+                default:
+                    return name;
+            }
+        }
+
+        private static String typo(String name, SplittableRandom random) {
+            if (name.length() < 2) {
+                return name;
+            }
+            StringBuilder sb = new StringBuilder(name);
+            int i = random.nextInt(name.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    sb.deleteCharAt(i);
+                    break;
+                case 1:
+                    sb.insert(i, sb.charAt(i));
+                    break;
+                case 2:
+                    sb.setCharAt(i, (char) ('a' + random.nextInt(26)));
+                    break;
+                default:
+                    char c = sb.charAt(i);
+                    sb.setCharAt(i, sb.charAt(i + 1));
+                    sb.setCharAt(i + 1, c);
+                    break;
+            }
+            return sb.toString();
+        }
+
+        private static String pick(String[] values, SplittableRandom random) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    /**
+     * Helper method to add a test case.
+     */
+    private static void addTestCase(List<CsvPairReader.TestCase> testCases,
+                                   String name1, String name2, String description) {
+        testCases.add(new CsvPairReader.TestCase(testCases.size() + 1, name1, name2, description));
+    }
+
+    /**
+     * Main method for standalone execution.
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.out.println("Usage: java ComparisonTool [--algorithm=generic|indian] [--python=<module.py>]"
+                        + " [--python-command=python3] [--input=<cases.csv> | --generate=<count> [--seed=<n>]]"
+                        + " [--workers=<n>] [--tolerance=0.01] [--output=<diffs.ndjson>] [--worker=parity_worker.py]");
+                System.exit(1);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+
+        boolean indian = "indian".equals(options.getOrDefault("algorithm", "indian"));
+        NameMatcher matcher = indian ? new IndianNameMatchService() : new NameMatchService();
+        String module = options.getOrDefault("python", indian ? "name-match-srini.py" : "name_match_score.py");
+        Path worker = Paths.get(options.getOrDefault("worker", "parity_worker.py"));
+        List<String> pythonCommand = Arrays.asList(options.getOrDefault("python-command", "python3"),
+                worker.toString(), module);
+        int workers = Integer.parseInt(options.getOrDefault("workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.01"));
+        Path outputPath = Paths.get(options.getOrDefault("output", "parity_diffs.ndjson"));
+
+        long differences;
+        try {
+            if (options.containsKey("input")) {
+                try (CsvPairReader reader = new CsvPairReader(Paths.get(options.get("input")))) {
+                    differences = compareImplementations(reader, matcher, pythonCommand, workers, tolerance, outputPath);
+                }
+            } else {
+                Iterator<CsvPairReader.TestCase> cases = options.containsKey("generate")
+                        ? new GeneratedCases(Long.parseLong(options.get("generate")),
+                                Long.parseLong(options.getOrDefault("seed", "1")))
+                        : generateIndianNameTestCases().iterator();
+                differences = compareImplementations(cases, matcher, pythonCommand, workers, tolerance, outputPath);
+            }
+        } catch (IOException e) {
+            // Other workers may still be blocked on their pipes
+            System.err.println("Comparison failed: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.out.println("Comparison completed. Found " + differences + " differences.");
+        System.out.println("Differences saved to: " + outputPath);
+        System.exit(differences == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,348 @@
+package com.name.match.util;
+
+import java.util.Arrays;
+
+/**
+ * Primitive multiset of the doublets produced by {@code IndianNameMatchService.makeduo}.
+ *
+ * makeduo emits, for every name part, a start marker "_x", an end marker "x_", every consecutive
+ * character pair and, for parts longer than two characters, the whole part. Every token except the
+ * whole part is exactly two UTF-16 chars, so it is packed into an {@code int} with
+ * {@link BigramKernel#pack(char, char)}. Whole parts are kept as offsets into the source text with a
+ * 64-bit hash for a cheap inequality check; equal hashes are confirmed char by char, so hash
+ * collisions cannot change a score.
+ *
+ * makeduo stores the list size under the key "length" in the same map as the doublets. A name part
+ * that is literally "length" therefore bumps the stored size by one and is never counted as a match,
+ * because compareString removes that key before comparing. This class reproduces that behaviour so
+ * the scores stay identical.
+ *
+ * Instances are reusable: {@link #clear()} resets them without releasing the buffers.
+ */
+public final class DoubletMultiset {
+
+    private static final ThreadLocal<DoubletMultiset[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new DoubletMultiset[] { new DoubletMultiset(), new DoubletMultiset() });
+
+    private static final char BOUNDARY = '_';
+
+    private int[] codes = new int[32];
+    private int codeCount;
+
+    private CharSequence source;
+    private int[] wordStart = new int[8];
+    private int[] wordEnd = new int[8];
+    private long[] wordHash = new long[8];
+    private int wordCount;
+
+    private boolean[] wordUsed = new boolean[8];
+
+    private int length;
+    private boolean sorted;
+
+    /**
+     * Resets the multiset so it can be filled from a new name.
+     */
+    public void clear() {
+        codeCount = 0;
+        wordCount = 0;
+        length = 0;
+        source = null;
+        sorted = false;
+    }
+
+    /**
+     * Adds every space separated part of {@code name}, the same as calling makeduo on
+     * {@code Arrays.asList(name.split(" "))}. Empty parts contribute nothing in makeduo, so runs of
+     * spaces need no special handling.
+     */
+    public DoubletMultiset addParts(CharSequence name) {
+        int start = 0;
+        int end = name.length();
+        for (int i = 0; i < end; i++) {
+            if (name.charAt(i) == ' ') {
+                addPart(name, start, i);
+                start = i + 1;
+            }
+        }
+        addPart(name, start, end);
+        return this;
+    }
+
+    /**
+     * Adds the doublets of a single name part {@code name[from, to)}.
+     */
+    public DoubletMultiset addPart(CharSequence name, int from, int to) {
+        int partLength = to - from;
+        if (partLength <= 0) {
+            return this;
+        }
+        if (source != null && source != name) {
+            throw new IllegalArgumentException("All parts must come from the same name");
+        }
+        source = name;
+        sorted = false;
+
+        if (partLength == 1) {
+            ensureCodes(1);
+            codes[codeCount++] = BigramKernel.pack(BOUNDARY, name.charAt(from));
+            length++;
+            return this;
+        }
+
+        ensureCodes(partLength + 1);
+        codes[codeCount++] = BigramKernel.pack(BOUNDARY, name.charAt(from));
+        codes[codeCount++] = BigramKernel.pack(name.charAt(to - 1), BOUNDARY);
+        codeCount += BigramKernel.doublets(name, from, to, codes, codeCount);
+        length += partLength + 1;
+
+        if (partLength > 2) {
+            length++;
+            if (isLengthKey(name, from, to)) {
+                length++;
+            } else {
+                addWord(name, from, to);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Starts restoring a multiset saved earlier, e.g. by a {@link com.name.match.reference.ReferenceStore},
+     * without recomputing it: follow with the saved codes in sorted order through
+     * {@link #restoreCode} and the whole parts through {@link #restoreWord}.
+     *
+     * @param source The normalized name the whole parts are offsets into
+     * @param length The saved {@link #length()}
+     */
+    public DoubletMultiset restore(CharSequence source, int length) {
+        clear();
+        this.source = source;
+        this.length = length;
+        sorted = true;
+        return this;
+    }
+
+    /**
+     * Appends a saved code; codes must come in ascending order.
+     */
+    public void restoreCode(int code) {
+        ensureCodes(1);
+        codes[codeCount++] = code;
+    }
+
+    /**
+     * Appends a saved whole part {@code source[from, to)} with its {@link #wordHash}.
+     */
+    public void restoreWord(int from, int to, long hash) {
+        if (wordCount == wordStart.length) {
+            growWords();
+        }
+        wordStart[wordCount] = from;
+        wordEnd[wordCount] = to;
+        wordHash[wordCount] = hash;
+        wordCount++;
+    }
+
+    /**
+     * Value makeduo stores under its "length" key.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Number of two-char doublets (markers and bigrams).
+     */
+    public int codeCount() {
+        return codeCount;
+    }
+
+    /**
+     * Sorted two-char doublet codes; only the first {@link #codeCount()} entries are valid.
+     */
+    public int[] codes() {
+        sort();
+        return codes;
+    }
+
+    /**
+     * Number of whole-part tokens.
+     */
+    public int wordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Hash of the whole-part token at {@code index}, as used for the cheap equality check.
+     */
+    public long wordHash(int index) {
+        return wordHash[index];
+    }
+
+    /**
+     * Start offset in the source name of the whole-part token at {@code index}.
+     */
+    public int wordStart(int index) {
+        return wordStart[index];
+    }
+
+    /**
+     * End offset, exclusive, in the source name of the whole-part token at {@code index}.
+     */
+    public int wordEnd(int index) {
+        return wordEnd[index];
+    }
+
+    /**
+     * Counts the doublets the two multisets have in common, each occurrence counted at most once.
+     * This is the {@code match} value of compareString.
+     */
+    public int intersect(DoubletMultiset other) {
+        int match = BigramKernel.intersect(codes(), codeCount, other.codes(), other.codeCount);
+        return match + intersectWords(other);
+    }
+
+    /**
+     * Same result as {@code compareString(makeduo(a), makeduo(b))}.
+     */
+    public static double compare(DoubletMultiset a, DoubletMultiset b) {
+        int total = Math.min(a.length, b.length);
+        int match = a.intersect(b);
+
+        if (total == 0) {
+            total = 1; // Avoid division by zero
+        }
+
+        return (match / (double) total) * 100;
+    }
+
+    /**
+     * Scores two normalized names with per-thread multisets. Same result as
+     * {@code compareString(makeduo(asList(a.split(" "))), makeduo(asList(b.split(" "))))}.
+     */
+    public static double compare(CharSequence a, CharSequence b) {
+        DoubletMultiset[] scratch = SCRATCH.get();
+        DoubletMultiset left = scratch[0];
+        DoubletMultiset right = scratch[1];
+        left.clear();
+        right.clear();
+        try {
+            return compare(left.addParts(a), right.addParts(b));
+        } finally {
+            left.source = null;
+            right.source = null;
+        }
+    }
+
+    /**
+     * Scores a normalized name against a multiset built or restored earlier. Same result as
+     * {@code compare(a, name of b)}.
+     */
+    public static double compare(CharSequence a, DoubletMultiset b) {
+        DoubletMultiset left = SCRATCH.get()[0];
+        left.clear();
+        try {
+            return compare(left.addParts(a), b);
+        } finally {
+            left.source = null;
+        }
+    }
+
+    private int intersectWords(DoubletMultiset other) {
+        if (wordCount == 0 || other.wordCount == 0) {
+            return 0;
+        }
+        boolean[] used = other.wordUsed(other.wordCount);
+        int match = 0;
+        for (int i = 0; i < wordCount; i++) {
+            for (int j = 0; j < other.wordCount; j++) {
+                if (!used[j] && wordHash[i] == other.wordHash[j] && sameWord(i, other, j)) {
+                    used[j] = true;
+                    match++;
+                    break;
+                }
+            }
+        }
+        return match;
+    }
+
+    private boolean sameWord(int index, DoubletMultiset other, int otherIndex) {
+        int from = wordStart[index];
+        int to = wordEnd[index];
+        int otherFrom = other.wordStart[otherIndex];
+        if (to - from != other.wordEnd[otherIndex] - otherFrom) {
+            return false;
+        }
+        for (int i = from, j = otherFrom; i < to; i++, j++) {
+            if (source.charAt(i) != other.source.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addWord(CharSequence name, int from, int to) {
+        if (wordCount == wordStart.length) {
+            growWords();
+        }
+        wordStart[wordCount] = from;
+        wordEnd[wordCount] = to;
+        wordHash[wordCount] = hash(name, from, to);
+        wordCount++;
+    }
+
+    private void growWords() {
+        int size = wordCount * 2;
+        wordStart = Arrays.copyOf(wordStart, size);
+        wordEnd = Arrays.copyOf(wordEnd, size);
+        wordHash = Arrays.copyOf(wordHash, size);
+    }
+
+    private boolean[] wordUsed(int size) {
+        if (wordUsed.length < size) {
+            wordUsed = new boolean[Math.max(size, wordUsed.length * 2)];
+        } else {
+            Arrays.fill(wordUsed, 0, size, false);
+        }
+        return wordUsed;
+    }
+
+    private void ensureCodes(int extra) {
+        if (codeCount + extra > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(codeCount + extra, codes.length * 2));
+        }
+    }
+
+    private void sort() {
+        if (!sorted) {
+            Arrays.sort(codes, 0, codeCount);
+            sorted = true;
+        }
+    }
+
+    private static boolean isLengthKey(CharSequence name, int from, int to) {
+        String key = "length";
+        if (to - from != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (name.charAt(from + i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars of {@code name[from, to)}.
+     */
+    static long hash(CharSequence name, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= name.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,556 @@
+package com.name.match.util;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free replacements for {@code FuzzySearch.ratio}, {@code FuzzySearch.partialRatio} and
+ * {@code JaroWinklerSimilarity.apply}, returning exactly the same values.
+ *
+ * The library versions copy both strings into new arrays and build edit operation, matching block
+ * and boxed score lists on every call; the soundex stage called them for almost every scored pair.
+ * This kernel works on per thread buffers that only grow, so steady state scoring does not allocate:
+ *
+ * - {@link #ratio} is {@code (|a| + |b| - d) / (|a| + |b|)} where {@code d} is the insert/delete
+ *   distance fuzzywuzzy computes with substitutions costing 2. That distance is
+ *   {@code |a| + |b| - 2 * LCS}, so the ratio only needs the length of the longest common
+ *   subsequence, which is computed bit-parallel (Hyyro), 64 pattern chars per machine word
+ * - {@link #partialRatio} scores the same windows of the longer string as fuzzywuzzy. Their offsets
+ *   come from the matching blocks of a Levenshtein alignment, traced back through the cost matrix
+ *   with the same tie breaking as python-Levenshtein, so this part is a port rather than a rewrite.
+ *   Every window is then scored with the bit-parallel ratio, reusing the shorter string's bit masks
+ * - {@link #jaroWinkler} is the commons-text algorithm with the match flags and matched char lists
+ *   replaced by reusable arrays
+ *
+ * Scores are derived with the same arithmetic as the libraries, so results are bit-for-bit identical.
+ */
+public final class FuzzyKernel {
+
+    private static final double PARTIAL_MATCH = 0.995;
+    private static final double JARO_WINKLER_BOOST_THRESHOLD = 0.7;
+    private static final double JARO_WINKLER_SCALING_FACTOR = 0.1;
+
+    private static final int DELETE = 0;
+    private static final int INSERT = 1;
+    private static final int REPLACE = 2;
+
+    /**
+     * Buffers larger than this are allocated for the call instead of being kept by the thread, so
+     * one very long input does not pin a large cost matrix for the lifetime of a pool thread.
+     */
+    private static final int MAX_RETAINED = 1 << 16;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private FuzzyKernel() {
+    }
+
+    /**
+     * Same result as {@code FuzzySearch.ratio(a, b)}.
+     */
+    public static int ratio(CharSequence a, CharSequence b) {
+        return ratioFromLcs(lcs(a, b), a.length(), b.length());
+    }
+
+    /**
+     * Length of the longest common subsequence of {@code a} and {@code b}, the quantity
+     * {@link #ratio} is derived from. Callers that need several scores of one pair can compute it
+     * once and pass it to {@link #ratioFromLcs} and {@link #isPartialMatch}.
+     */
+    public static int lcs(CharSequence a, CharSequence b) {
+        Scratch scratch = SCRATCH.get();
+        int aLength = a.length();
+        int bLength = b.length();
+        char[] first = scratch.first(a);
+        char[] second = scratch.second(b);
+        // The pattern should be the shorter string, it sets the number of words per step
+        return aLength <= bLength
+                ? scratch.lcs(first, aLength, second, 0, bLength)
+                : scratch.lcs(second, bLength, first, 0, aLength);
+    }
+
+    /**
+     * {@link #ratio} of two strings of the given lengths whose {@link #lcs} is {@code lcs}.
+     */
+    public static int ratioFromLcs(int lcs, int aLength, int bLength) {
+        return (int) Math.round(100 * ratio(lcs, aLength + bLength));
+    }
+
+    /**
+     * Same as {@code partialRatio(a, b) == 100}, given {@code lcs(a, b)}.
+     *
+     * No window of the longer string can have more chars in common with the shorter one than the
+     * whole string has, so a window ratio is at most {@code 2 * lcs / (|shorter| + lcs)}. When that
+     * bound already rounds below 100 the alignment is skipped, which is the common case and saves
+     * the quadratic part of {@link #partialRatio}.
+     */
+    public static boolean isPartialMatch(CharSequence a, CharSequence b, int lcs) {
+        int shortLength = Math.min(a.length(), b.length());
+        if (shortLength == 0) {
+            return false;
+        }
+        double bound = ratio(lcs, shortLength + lcs);
+        if (bound <= PARTIAL_MATCH && Math.round(100 * bound) < 100) {
+            return false;
+        }
+        return partialRatio(a, b) == 100;
+    }
+
+    /**
+     * Same result as {@code FuzzySearch.partialRatio(a, b)}: the best ratio between the shorter
+     * string and an equally long window of the longer one, for the windows fuzzywuzzy tries.
+     */
+    public static int partialRatio(CharSequence a, CharSequence b) {
+        CharSequence shorter = a.length() <= b.length() ? a : b;
+        CharSequence longer = shorter == a ? b : a;
+        int shortLength = shorter.length();
+        int longLength = longer.length();
+        if (shortLength == 0) {
+            // fuzzywuzzy scores 0 / 0 here, and the NaN rounds to 0
+            return 0;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        char[] s = scratch.first(shorter);
+        char[] l = scratch.second(longer);
+        int opCount = scratch.editOps(s, shortLength, l, longLength);
+        scratch.masks(s, shortLength);
+        try {
+            int[] opType = scratch.opType;
+            int[] opS = scratch.opS;
+            int[] opD = scratch.opD;
+            double best = -1;
+
+            // Walks the edit operations like DiffUtils.getMatchingBlocks and scores the window for
+            // each block start, then for the trailing block and the end marker
+            int sPos = 0;
+            int dPos = 0;
+            int i = 0;
+            while (i < opCount) {
+                if (sPos < opS[i] || dPos < opD[i]) {
+                    double ratio = scratch.windowRatio(shortLength, l, longLength, dPos - sPos);
+                    if (ratio > PARTIAL_MATCH) {
+                        return 100;
+                    }
+                    best = Math.max(best, ratio);
+                    sPos = opS[i];
+                    dPos = opD[i];
+                }
+                int type = opType[i];
+                do {
+                    if (type != INSERT) {
+                        sPos++;
+                    }
+                    if (type != DELETE) {
+                        dPos++;
+                    }
+                    i++;
+                } while (i < opCount && opType[i] == type && opS[i] == sPos && opD[i] == dPos);
+            }
+            if (sPos < shortLength || dPos < longLength) {
+                double ratio = scratch.windowRatio(shortLength, l, longLength, dPos - sPos);
+                if (ratio > PARTIAL_MATCH) {
+                    return 100;
+                }
+                best = Math.max(best, ratio);
+            }
+            double ratio = scratch.windowRatio(shortLength, l, longLength, longLength - shortLength);
+            if (ratio > PARTIAL_MATCH) {
+                return 100;
+            }
+            best = Math.max(best, ratio);
+            return (int) Math.round(100 * best);
+        } finally {
+            scratch.clearMasks(s, shortLength);
+        }
+    }
+
+    /**
+     * Same result as {@code new JaroWinklerSimilarity().apply(a, b)}.
+     *
+     * @throws IllegalArgumentException if either input is null
+     */
+    public static double jaroWinkler(CharSequence a, CharSequence b) {
+        if (a == null || b == null) {
+            throw new IllegalArgumentException("CharSequences must not be null");
+        }
+        int aLength = a.length();
+        int bLength = b.length();
+        Scratch scratch = SCRATCH.get();
+        char[] first = scratch.first(a);
+        char[] second = scratch.second(b);
+        if (aLength == bLength && regionEquals(first, second, aLength)) {
+            return 1d;
+        }
+
+        // commons-text walks the shorter string and searches the longer one, the first on a tie
+        boolean firstIsMax = aLength > bLength;
+        char[] max = firstIsMax ? first : second;
+        char[] min = firstIsMax ? second : first;
+        int maxLength = Math.max(aLength, bLength);
+        int minLength = Math.min(aLength, bLength);
+        int range = Math.max(maxLength / 2 - 1, 0);
+
+        boolean[] minFlags = scratch.minFlags(minLength);
+        boolean[] maxFlags = scratch.maxFlags(maxLength);
+        int matches = 0;
+        for (int mi = 0; mi < minLength; mi++) {
+            char c = min[mi];
+            for (int xi = Math.max(mi - range, 0), xn = Math.min(mi + range + 1, maxLength); xi < xn; xi++) {
+                if (!maxFlags[xi] && c == max[xi]) {
+                    minFlags[mi] = true;
+                    maxFlags[xi] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+
+        // Compares the matched chars of both strings in order without collecting them
+        int halfTranspositions = 0;
+        for (int mi = 0, xi = 0; mi < minLength; mi++) {
+            if (minFlags[mi]) {
+                while (!maxFlags[xi]) {
+                    xi++;
+                }
+                if (min[mi] != max[xi]) {
+                    halfTranspositions++;
+                }
+                xi++;
+            }
+        }
+        int prefix = 0;
+        for (int i = 0; i < Math.min(4, minLength) && first[i] == second[i]; i++) {
+            prefix++;
+        }
+        scratch.clearFlags(minLength, maxLength);
+
+        double m = matches;
+        if (m == 0) {
+            return 0d;
+        }
+        double j = (m / aLength + m / bLength + (m - halfTranspositions / 2.0) / m) / 3.0;
+        return j < JARO_WINKLER_BOOST_THRESHOLD ? j : j + JARO_WINKLER_SCALING_FACTOR * prefix * (1d - j);
+    }
+
+    /**
+     * fuzzywuzzy's {@code DiffUtils.getRatio} for strings of total length {@code lengthSum} with the
+     * given common subsequence length.
+     */
+    private static double ratio(int lcs, int lengthSum) {
+        int distance = lengthSum - 2 * lcs;
+        return (lengthSum - distance) / (double) lengthSum;
+    }
+
+    private static boolean regionEquals(char[] a, char[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Scratch {
+        private char[] first = new char[64];
+        private char[] second = new char[64];
+
+        // Bit masks of the pattern: for every char, the positions where it occurs. Chars below 256
+        // are looked up directly, others in a short list; both are cleared after each use
+        private long[] asciiMasks = new long[256];
+        private char[] otherChars = new char[8];
+        private long[] otherMasks = new long[8];
+        private int otherCount;
+        private int words;
+        private long[] row = new long[1];
+
+        private int[] matrix = new int[256];
+        private int[] opType = new int[64];
+        private int[] opS = new int[64];
+        private int[] opD = new int[64];
+
+        private boolean[] minFlags = new boolean[64];
+        private boolean[] maxFlags = new boolean[64];
+
+        char[] first(CharSequence s) {
+            first = copy(s, first);
+            return first;
+        }
+
+        char[] second(CharSequence s) {
+            second = copy(s, second);
+            return second;
+        }
+
+        private static char[] copy(CharSequence s, char[] buffer) {
+            int length = s.length();
+            if (buffer.length < length) {
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
+            if (s instanceof String) {
+                ((String) s).getChars(0, length, buffer, 0);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = s.charAt(i);
+                }
+            }
+            return buffer;
+        }
+
+        /**
+         * Length of the longest common subsequence of {@code pattern[0, m)} and
+         * {@code text[from, to)}.
+         */
+        int lcs(char[] pattern, int m, char[] text, int from, int to) {
+            if (m == 0 || from >= to) {
+                return 0;
+            }
+            masks(pattern, m);
+            try {
+                return lcsWithMasks(m, text, from, to);
+            } finally {
+                clearMasks(pattern, m);
+            }
+        }
+
+        /**
+         * {@link FuzzyKernel#ratio(int, int)} of the pattern set by {@link #masks} and the window of
+         * {@code text} starting at {@code dist}, or at 0 if negative, as in fuzzywuzzy's PartialRatio.
+         */
+        double windowRatio(int m, char[] text, int textLength, int dist) {
+            int from = Math.max(dist, 0);
+            int to = Math.min(from + m, textLength);
+            int lcs = from < to ? lcsWithMasks(m, text, from, to) : 0;
+            return ratio(lcs, m + to - from);
+        }
+
+        private int lcsWithMasks(int m, char[] text, int from, int to) {
+            int words = this.words;
+            long[] row = this.row;
+            for (int w = 0; w < words; w++) {
+                row[w] = -1L;
+            }
+            for (int t = from; t < to; t++) {
+                char c = text[t];
+                long[] masks;
+                int base;
+                if (c < 256) {
+                    masks = asciiMasks;
+                    base = c * words;
+                } else {
+                    int other = otherIndex(c);
+                    if (other < 0) {
+                        continue;
+                    }
+                    masks = otherMasks;
+                    base = other * words;
+                }
+                // V' = (V + U) | (V - U) with U = V & match; U is a subset of V, so V - U is V & ~U
+                long carry = 0;
+                for (int w = 0; w < words; w++) {
+                    long v = row[w];
+                    long u = v & masks[base + w];
+                    long partial = v + u;
+                    long sum = partial + carry;
+                    carry = Long.compareUnsigned(partial, v) < 0 || Long.compareUnsigned(sum, partial) < 0 ? 1 : 0;
+                    row[w] = sum | (v & ~u);
+                }
+            }
+            int ones = 0;
+            for (int w = 0; w < words - 1; w++) {
+                ones += Long.bitCount(row[w]);
+            }
+            int tail = m - 64 * (words - 1);
+            long tailMask = tail == 64 ? -1L : (1L << tail) - 1;
+            ones += Long.bitCount(row[words - 1] & tailMask);
+            return m - ones;
+        }
+
+        void masks(char[] pattern, int m) {
+            int words = (m + 63) >>> 6;
+            this.words = words;
+            if (row.length < words) {
+                row = new long[words];
+            }
+            if (asciiMasks.length < 256 * words) {
+                asciiMasks = new long[256 * words];
+            }
+            otherCount = 0;
+            for (int i = 0; i < m; i++) {
+                char c = pattern[i];
+                long bit = 1L << i;
+                int word = i >>> 6;
+                if (c < 256) {
+                    asciiMasks[c * words + word] |= bit;
+                } else {
+                    int other = otherIndex(c);
+                    if (other < 0) {
+                        other = otherCount++;
+                        if (otherChars.length < otherCount) {
+                            otherChars = Arrays.copyOf(otherChars, otherChars.length * 2);
+                        }
+                        if (otherMasks.length < otherCount * words) {
+                            otherMasks = Arrays.copyOf(otherMasks, Math.max(otherCount * words, otherMasks.length * 2));
+                        }
+                        otherChars[other] = c;
+                    }
+                    otherMasks[other * words + word] |= bit;
+                }
+            }
+        }
+
+        void clearMasks(char[] pattern, int m) {
+            int words = this.words;
+            for (int i = 0; i < m; i++) {
+                char c = pattern[i];
+                if (c < 256) {
+                    for (int w = 0; w < words; w++) {
+                        asciiMasks[c * words + w] = 0;
+                    }
+                }
+            }
+            Arrays.fill(otherMasks, 0, otherCount * words, 0);
+            otherCount = 0;
+        }
+
+        private int otherIndex(char c) {
+            for (int i = 0; i < otherCount; i++) {
+                if (otherChars[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Levenshtein edit operations turning {@code s1} into {@code s2}, written to opType, opS
+         * and opD. Follows DiffUtils.getEditOps: common prefix and suffix are stripped, the cost
+         * matrix is filled and traced back from the end with the same preference order.
+         *
+         * @return Number of operations, which is the edit distance
+         */
+        int editOps(char[] s1, int len1, char[] s2, int len2) {
+            int start = 0;
+            while (len1 > 0 && len2 > 0 && s1[start] == s2[start]) {
+                len1--;
+                len2--;
+                start++;
+            }
+            while (len1 > 0 && len2 > 0 && s1[start + len1 - 1] == s2[start + len2 - 1]) {
+                len1--;
+                len2--;
+            }
+            int rows = len1 + 1;
+            int columns = len2 + 1;
+            int[] matrix = matrix(rows * columns);
+            for (int j = 0; j < columns; j++) {
+                matrix[j] = j;
+            }
+            for (int i = 1; i < rows; i++) {
+                matrix[columns * i] = i;
+            }
+            for (int i = 1; i < rows; i++) {
+                int prev = (i - 1) * columns;
+                int p = i * columns + 1;
+                int end = i * columns + columns - 1;
+                char c1 = s1[start + i - 1];
+                int c2 = start;
+                int x = i;
+                while (p <= end) {
+                    int cost = matrix[prev++] + (c1 != s2[c2++] ? 1 : 0);
+                    x++;
+                    if (x > cost) {
+                        x = cost;
+                    }
+                    cost = matrix[prev] + 1;
+                    if (x > cost) {
+                        x = cost;
+                    }
+                    matrix[p++] = x;
+                }
+            }
+
+            int count = matrix[rows * columns - 1];
+            ops(count);
+            int pos = count;
+            int i = rows - 1;
+            int j = columns - 1;
+            int p = rows * columns - 1;
+            int dir = 0;
+            while (i > 0 || j > 0) {
+                if (i != 0 && j != 0 && matrix[p] == matrix[p - columns - 1]
+                        && s1[start + i - 1] == s2[start + j - 1]) {
+                    i--;
+                    j--;
+                    p -= columns + 1;
+                    dir = 0;
+                } else if (dir < 0 && j != 0 && matrix[p] == matrix[p - 1] + 1) {
+                    op(--pos, INSERT, i + start, --j + start);
+                    p--;
+                } else if (dir > 0 && i != 0 && matrix[p] == matrix[p - columns] + 1) {
+                    op(--pos, DELETE, --i + start, j + start);
+                    p -= columns;
+                } else if (i != 0 && j != 0 && matrix[p] == matrix[p - columns - 1] + 1) {
+                    op(--pos, REPLACE, --i + start, --j + start);
+                    p -= columns + 1;
+                    dir = 0;
+                } else if (dir == 0 && j != 0 && matrix[p] == matrix[p - 1] + 1) {
+                    op(--pos, INSERT, i + start, --j + start);
+                    p--;
+                    dir = -1;
+                } else if (dir == 0 && i != 0 && matrix[p] == matrix[p - columns] + 1) {
+                    op(--pos, DELETE, --i + start, j + start);
+                    p -= columns;
+                    dir = 1;
+                } else {
+                    throw new IllegalStateException("Inconsistent edit cost matrix");
+                }
+            }
+            return count;
+        }
+
+        private void op(int pos, int type, int sPos, int dPos) {
+            opType[pos] = type;
+            opS[pos] = sPos;
+            opD[pos] = dPos;
+        }
+
+        private int[] matrix(int size) {
+            if (matrix.length >= size) {
+                return matrix;
+            }
+            if (size > MAX_RETAINED) {
+                return new int[size];
+            }
+            matrix = new int[Math.min(MAX_RETAINED, Math.max(size, matrix.length * 2))];
+            return matrix;
+        }
+
+        private void ops(int count) {
+            if (opType.length < count) {
+                int size = Math.max(count, opType.length * 2);
+                opType = new int[size];
+                opS = new int[size];
+                opD = new int[size];
+            }
+        }
+
+        boolean[] minFlags(int length) {
+            if (minFlags.length < length) {
+                minFlags = new boolean[Math.max(length, minFlags.length * 2)];
+            }
+            return minFlags;
+        }
+
+        boolean[] maxFlags(int length) {
+            if (maxFlags.length < length) {
+                maxFlags = new boolean[Math.max(length, maxFlags.length * 2)];
+            }
+            return maxFlags;
+        }
+
+        void clearFlags(int minLength, int maxLength) {
+            Arrays.fill(minFlags, 0, minLength, false);
+            Arrays.fill(maxFlags, 0, maxLength, false);
+        }
+    }
+}
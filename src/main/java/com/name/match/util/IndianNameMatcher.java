@@ -0,0 +1,320 @@
+package com.name.match.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utility class for specialized Indian name matching.
+ * This class implements functionality similar to the indian_namematch.fuzzymatch module used in the Python version.
+ *
+ * {@link #singleCompare} is a pipeline of independent checks, any one of which makes the pair a
+ * match. Since the outcome does not depend on their order, the checks run cheapest and most
+ * selective first (see {@link #ORDER}) and stop at the first match. Each name is parsed once per
+ * call into lower case, separator normalized and initials-stripped forms that all checks share, and
+ * the ratio and partial ratio checks share one common subsequence computation.
+ */
+public class IndianNameMatcher {
+
+    /**
+     * The checks of {@link #singleCompare}.
+     */
+    public enum Stage {
+        /** Equal after normalizing separators */
+        EXACT,
+        /** Jaro-Winkler similarity above 0.95 (good for Indian names with transpositions) */
+        JARO_WINKLER,
+        /** Common South Indian pattern: initials in different positions, e.g. "K. Ramesh" and "Ramesh K." */
+        INITIALS,
+        /** fuzzywuzzy ratio above 90 */
+        RATIO,
+        /** fuzzywuzzy partial ratio of 100 (important for multi-part names) */
+        PARTIAL_RATIO
+    }
+
+    /**
+     * Order the stages run in, lowest cost per call over the fraction of pairs a stage matches on its
+     * own first. Measured over the parity corpus, after the shared parsing (ns per call, pairs
+     * matched): EXACT 0, 1%; RATIO 80, 2%; PARTIAL_RATIO 900, 26%; JARO_WINKLER 650, 2%;
+     * INITIALS 500, under 1%. RATIO goes before PARTIAL_RATIO because the common subsequence it
+     * computes is also the bound that lets PARTIAL_RATIO skip the alignment for most pairs.
+     */
+    private static final Stage[] ORDER = {
+            Stage.EXACT, Stage.RATIO, Stage.PARTIAL_RATIO, Stage.JARO_WINKLER, Stage.INITIALS
+    };
+
+    private static final ThreadLocal<Comparison> COMPARISONS = ThreadLocal.withInitial(Comparison::new);
+
+    /**
+     * Compares two Indian names to determine if they are a match.
+     * This is an equivalent implementation of the indian_namematch.fuzzymatch.single_compare function.
+     *
+     * @param name1 First name to compare
+     * @param name2 Second name to compare
+     * @return "Match" if names match phonetically/structurally, "NoMatch" otherwise
+     */
+    public static String singleCompare(String name1, String name2) {
+        return singleCompare(name1, name2, null);
+    }
+
+    /**
+     * {@link #singleCompare(String, String)} that also records the time spent in each stage.
+     *
+     * @param timings Where stage timings are added, or null to skip timing
+     */
+    public static String singleCompare(String name1, String name2, StageTimings timings) {
+        if (name1 == null || name2 == null || name1.isEmpty() || name2.isEmpty()) {
+            return "NoMatch";
+        }
+
+        Comparison comparison = COMPARISONS.get();
+        comparison.load(name1, name2);
+        for (Stage stage : ORDER) {
+            boolean matched;
+            if (timings == null) {
+                matched = comparison.test(stage);
+            } else {
+                long start = System.nanoTime();
+                matched = comparison.test(stage);
+                timings.record(stage, matched, System.nanoTime() - start);
+            }
+            if (matched) {
+                return "Match";
+            }
+        }
+        return "NoMatch";
+    }
+
+    /**
+     * Whether one stage on its own matches the pair, for measuring stages independently of the order
+     * they run in; the {@code IndianStageBenchmark} JMH benchmark times each stage this way.
+     */
+    public static boolean test(Stage stage, String name1, String name2) {
+        Comparison comparison = COMPARISONS.get();
+        comparison.load(name1, name2);
+        return comparison.test(stage);
+    }
+
+    /**
+     * Calls, matches and time per stage, summed over any number of threads. A stage is only counted
+     * for the pairs that reach it, so later stages see fewer calls. The
+     * {@code indianSingleCompareTimed} JMH benchmark prints them at the end of each fork.
+     */
+    public static final class StageTimings {
+        private final LongAdder[] calls = adders();
+        private final LongAdder[] matches = adders();
+        private final LongAdder[] nanos = adders();
+
+        private static LongAdder[] adders() {
+            LongAdder[] adders = new LongAdder[Stage.values().length];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        void record(Stage stage, boolean matched, long elapsedNanos) {
+            calls[stage.ordinal()].increment();
+            if (matched) {
+                matches[stage.ordinal()].increment();
+            }
+            nanos[stage.ordinal()].add(elapsedNanos);
+        }
+
+        public long getCalls(Stage stage) {
+            return calls[stage.ordinal()].sum();
+        }
+
+        public long getMatches(Stage stage) {
+            return matches[stage.ordinal()].sum();
+        }
+
+        public long getNanos(Stage stage) {
+            return nanos[stage.ordinal()].sum();
+        }
+
+        /**
+         * One line per stage in pipeline order: calls, matches and mean time per call.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Stage stage : ORDER) {
+                long stageCalls = getCalls(stage);
+                sb.append(String.format("%-13s calls=%d matches=%d mean=%.0f ns%n", stage, stageCalls,
+                        getMatches(stage), stageCalls == 0 ? 0.0 : getNanos(stage) / (double) stageCalls));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The pair being compared, with everything the stages share.
+     */
+    private static final class Comparison {
+        private final ParsedName first = new ParsedName();
+        private final ParsedName second = new ParsedName();
+        private int lcs;
+
+        void load(String name1, String name2) {
+            first.load(name1);
+            second.load(name2);
+            lcs = -1;
+        }
+
+        boolean test(Stage stage) {
+            switch (stage) {
+                case EXACT:
+                    return first.separators.contentEquals(second.separators);
+                case JARO_WINKLER:
+                    return FuzzyKernel.jaroWinkler(first.text, second.text) > 0.95;
+                case INITIALS:
+                    return matchSouthIndianPatterns(first, second);
+                case RATIO:
+                    return ratio() > 90;
+                case PARTIAL_RATIO:
+                    return FuzzyKernel.isPartialMatch(first.text, second.text, lcs());
+                default:
+                    throw new IllegalArgumentException("Unknown stage " + stage);
+            }
+        }
+
+        private int ratio() {
+            int firstLength = first.text.length();
+            int secondLength = second.text.length();
+            // Even if the shorter name were a subsequence of the longer one the ratio could not pass
+            if (FuzzyKernel.ratioFromLcs(Math.min(firstLength, secondLength), firstLength, secondLength) <= 90) {
+                return 0;
+            }
+            return FuzzyKernel.ratioFromLcs(lcs(), firstLength, secondLength);
+        }
+
+        private int lcs() {
+            if (lcs < 0) {
+                lcs = FuzzyKernel.lcs(first.text, second.text);
+            }
+            return lcs;
+        }
+    }
+
+    /**
+     * A name lower cased and trimmed, with the forms the stages compare computed once.
+     */
+    private static final class ParsedName {
+        private String text;
+        private final NormalizedName separators = new NormalizedName();
+        private boolean partsParsed;
+        private boolean hasInitial;
+        private String nonInitials;
+
+        void load(String name) {
+            text = name.toLowerCase().trim();
+            NameNormalizer.separators(text, separators);
+            partsParsed = false;
+            nonInitials = null;
+        }
+
+        boolean hasInitial() {
+            if (!partsParsed) {
+                hasInitial = false;
+                int start = 0;
+                while (!hasInitial && start < text.length()) {
+                    int end = partEnd(start);
+                    hasInitial = isInitial(text, start, end);
+                    start = nextPart(end);
+                }
+                partsParsed = true;
+            }
+            return hasInitial;
+        }
+
+        /**
+         * The parts that are not initials, joined with single spaces.
+         */
+        String nonInitials() {
+            if (nonInitials == null) {
+                StringBuilder result = new StringBuilder(text.length());
+                int start = 0;
+                while (start < text.length()) {
+                    int end = partEnd(start);
+                    if (!isInitial(text, start, end)) {
+                        if (result.length() > 0) {
+                            result.append(' ');
+                        }
+                        result.append(text, start, end);
+                    }
+                    start = nextPart(end);
+                }
+                nonInitials = result.toString();
+            }
+            return nonInitials;
+        }
+
+        /*
+         * Parts are what text.split("\\s+") returns. The text is trimmed, so it has no leading
+         * empty part.
+         */
+
+        private int partEnd(int start) {
+            int end = start;
+            while (end < text.length() && !isWhitespace(text.charAt(end))) {
+                end++;
+            }
+            return end;
+        }
+
+        private int nextPart(int end) {
+            int start = end;
+            while (start < text.length() && isWhitespace(text.charAt(start))) {
+                start++;
+            }
+            return start;
+        }
+    }
+
+    /**
+     * Checks for common South Indian name patterns.
+     */
+    private static boolean matchSouthIndianPatterns(ParsedName name1, ParsedName name2) {
+        // 1. Check for names with initials in different positions
+        // Example: "K. Ramesh" vs "Ramesh K."
+        // If both have initials, or one has an initial and the other doesn't,
+        // compare the non-initial parts
+        if (name1.hasInitial() || name2.hasInitial()) {
+            String nonInitial1 = name1.nonInitials();
+            String nonInitial2 = name2.nonInitials();
+
+            // If the non-initial parts match closely
+            if (!nonInitial1.isEmpty() && !nonInitial2.isEmpty()) {
+                double score = FuzzyKernel.jaroWinkler(nonInitial1, nonInitial2);
+                if (score > 0.9) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if {@code s[start, end)} is an initial (single letter, optionally with a dot).
+     */
+    private static boolean isInitial(String s, int start, int end) {
+        int length = end - start;
+        if (length == 1 || (length == 2 && s.charAt(start + 1) == '.')) {
+            return true;
+        }
+        int dots = 0;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == '.') {
+                dots++;
+            }
+        }
+        return length > 1 && dots > 0 && length - dots == 1;
+    }
+
+    /**
+     * The characters {@code \s} matches in a regular expression.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+}
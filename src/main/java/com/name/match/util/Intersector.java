@@ -0,0 +1,57 @@
+package com.name.match.util;
+
+import java.util.Optional;
+
+/**
+ * Counts the multiset intersection of two packed doublet arrays, the inner loop of both
+ * algorithms' {@code compareString}. {@link BigramKernel#intersect} uses the implementation
+ * returned by {@link #preferred()}.
+ *
+ * There are two implementations:
+ *
+ * - {@link #scalar()}: a linear merge of the two sorted arrays.
+ * - {@link #vector()}: {@code VectorIntersector}, which compares every code of one array against a
+ *   whole vector of the other's codes at once with SIMD compares from {@code jdk.incubator.vector}.
+ *   It is compiled only by the {@code vector} Maven profile, since the incubator module needs Java
+ *   16 or later, and can only be loaded when the JVM runs with
+ *   {@code --add-modules jdk.incubator.vector}.
+ *
+ * The {@code namematch.intersector} system property picks one: {@code scalar} (the default),
+ * {@code vector} or {@code auto}, which uses the vector implementation when it can be loaded. When
+ * it cannot, the scalar merge is used, with a warning if {@code vector} was asked for. Both return
+ * the same count for every input. The vector implementation intersects the Indian doublets about
+ * 1.7 times as fast but is no faster on the shorter generic ones, and the intersection
+ * is a small part of a whole match, so the merge stays the default.
+ */
+public interface Intersector {
+
+    /**
+     * @param a Sorted codes of the first name
+     * @param aLength Number of valid entries in {@code a}
+     * @param b Sorted codes of the second name
+     * @param bLength Number of valid entries in {@code b}
+     * @return Number of codes present in both, each occurrence counted at most once
+     */
+    int intersect(int[] a, int aLength, int[] b, int bLength);
+
+    /**
+     * The merge based implementation, always available.
+     */
+    static Intersector scalar() {
+        return Intersectors.SCALAR;
+    }
+
+    /**
+     * The SIMD implementation, if this build includes it and the JVM can run it.
+     */
+    static Optional<Intersector> vector() {
+        return Optional.ofNullable(Intersectors.VECTOR);
+    }
+
+    /**
+     * The implementation selected by {@code namematch.intersector}.
+     */
+    static Intersector preferred() {
+        return Intersectors.PREFERRED;
+    }
+}
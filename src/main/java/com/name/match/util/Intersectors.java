@@ -0,0 +1,84 @@
+package com.name.match.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link Intersector} implementations, resolved once when first used.
+ */
+final class Intersectors {
+
+    private static final Logger log = LoggerFactory.getLogger(Intersectors.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_CLASS = "com.name.match.util.VectorIntersector";
+
+    static final Intersector SCALAR = new Merge();
+    static final Intersector VECTOR = loadVector();
+    static final Intersector PREFERRED = select(System.getProperty("namematch.intersector", "scalar"));
+
+    private Intersectors() {
+    }
+
+    /**
+     * Loads VectorIntersector only if the incubator module is resolved; without the module the class
+     * would fail to link. Returns null when the class is missing from this build or cannot run.
+     */
+    private static Intersector loadVector() {
+        if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            return null;
+        }
+        try {
+            return (Intersector) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("Vector intersector cannot be used: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static Intersector select(String choice) {
+        if (choice.equals("vector") || choice.equals("auto")) {
+            if (VECTOR != null) {
+                log.info("Using the vector intersector");
+                return VECTOR;
+            }
+            if (choice.equals("vector")) {
+                log.warn("namematch.intersector=vector needs a build with -Pvector and the JVM option "
+                        + "--add-modules {}; using the scalar intersector", VECTOR_MODULE);
+            }
+        } else if (!choice.equals("scalar")) {
+            log.warn("Unknown namematch.intersector '{}', expected scalar, vector or auto; using scalar", choice);
+        }
+        return SCALAR;
+    }
+
+    /**
+     * Linear merge of the two sorted arrays: a match advances both sides, otherwise the smaller
+     * code is skipped.
+     */
+    private static final class Merge implements Intersector {
+
+        @Override
+        public int intersect(int[] a, int aLength, int[] b, int bLength) {
+            int i = 0;
+            int j = 0;
+            int match = 0;
+            while (i < aLength && j < bLength) {
+                int x = a[i];
+                int y = b[j];
+                if (x == y) {
+                    match++;
+                    i++;
+                    j++;
+                } else if (x < y) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return match;
+        }
+    }
+}
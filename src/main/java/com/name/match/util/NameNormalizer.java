@@ -0,0 +1,152 @@
+package com.name.match.util;
+
+/**
+ * Single-pass name normalization into a reusable {@link NormalizedName}.
+ *
+ * Each method reproduces one of the normalizations the services used to build from a chain of
+ * {@code replace}, {@code toLowerCase}, {@code trim} and regex calls, each of which copied the whole
+ * name. Here an ASCII name is read once and written once into the target buffer, with no
+ * intermediate Strings.
+ *
+ * Case mapping outside ASCII can change a name's length or depend on the surrounding characters
+ * (a final sigma, a dotted capital I), and a Turkish or Azeri default locale maps ASCII "I" to a
+ * dotless i. In those cases the original String chain runs instead and its result is copied into
+ * the buffer, so the output is always exactly what the String chain produced.
+ */
+public final class NameNormalizer {
+
+    private static final boolean ASCII_LOWER_CASE_SAFE =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase().equals("abcdefghijklmnopqrstuvwxyz");
+
+    private NameNormalizer() {
+    }
+
+    /**
+     * Normalizes like NameMatchService: {@code name.replace(" ", "").toLowerCase().trim()}.
+     */
+    public static NormalizedName generic(String name, NormalizedName out) {
+        int length = name.length();
+        out.clear(length);
+        if (ASCII_LOWER_CASE_SAFE) {
+            for (int i = 0; i < length; i++) {
+                char c = name.charAt(i);
+                if (c >= 0x80) {
+                    out.load(name.replace(" ", "").toLowerCase().trim());
+                    return out;
+                }
+                if (c != ' ') {
+                    out.append(lowerCase(c));
+                }
+            }
+            out.trim();
+            return out;
+        }
+        out.load(name.replace(" ", "").toLowerCase().trim());
+        return out;
+    }
+
+    /**
+     * Normalizes like IndianNameMatchService:
+     * {@code name.replace(".", " ").toLowerCase().trim()}, then for the first name only
+     * {@code .replace("(", "").replace(")", "")}, then {@code .replace("  ", " ")}.
+     *
+     * The last step replaces non-overlapping pairs of spaces, so a run of n spaces becomes
+     * {@code (n + 1) / 2} spaces rather than one; parentheses removed before it do not break a run.
+     *
+     * @param removeParentheses true for the first name of a pair
+     */
+    public static NormalizedName indian(String name, boolean removeParentheses, NormalizedName out) {
+        int end = name.length();
+        out.clear(end);
+        if (!ASCII_LOWER_CASE_SAFE) {
+            out.load(indianOnStrings(name, removeParentheses));
+            return out;
+        }
+
+        int start = 0;
+        while (start < end && isTrimmed(name.charAt(start))) {
+            start++;
+        }
+        while (end > start && isTrimmed(name.charAt(end - 1))) {
+            end--;
+        }
+
+        int spaces = 0;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                out.load(indianOnStrings(name, removeParentheses));
+                return out;
+            }
+            if (removeParentheses && (c == '(' || c == ')')) {
+                continue;
+            }
+            if (c == ' ' || c == '.') {
+                if ((spaces++ & 1) == 0) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            spaces = 0;
+            out.append(lowerCase(c));
+        }
+        return out;
+    }
+
+    /**
+     * Normalizes an already lower-cased, trimmed name like {@code IndianNameMatcher} did: dots,
+     * parentheses, hyphens and whitespace separate name parts, runs of them collapse to a single
+     * space and the result is trimmed.
+     */
+    public static NormalizedName separators(String name, NormalizedName out) {
+        int length = name.length();
+        out.clear(length);
+        boolean separator = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (isSeparator(c)) {
+                separator = true;
+                continue;
+            }
+            if (separator) {
+                out.append(' ');
+                separator = false;
+            }
+            out.append(c);
+        }
+        out.trim();
+        return out;
+    }
+
+    private static String indianOnStrings(String name, boolean removeParentheses) {
+        String normalized = name.replace(".", " ").toLowerCase().trim();
+        if (removeParentheses) {
+            normalized = normalized.replace("(", "").replace(")", "");
+        }
+        return normalized.replace("  ", " ");
+    }
+
+    /**
+     * Chars removed by the {@code trim()} that follows the dot replacement.
+     */
+    private static boolean isTrimmed(char c) {
+        return c <= ' ' || c == '.';
+    }
+
+    /**
+     * The chars the original {@code replace} calls and the {@code \s} regex class turned into spaces.
+     */
+    private static boolean isSeparator(char c) {
+        switch (c) {
+            case '.': case '(': case ')': case '-':
+            case ' ': case '\t': case '\n': case 0x0B: case '\f': case '\r':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static char lowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,315 @@
+package com.name.match.util;
+
+import java.util.Arrays;
+
+/**
+ * A normalized name held in a reusable char buffer, produced by {@link NameNormalizer}.
+ *
+ * The services used to compare normalized names as Strings and as {@code split(" ")} lists, sorted
+ * and unsorted. This class answers the same questions on the buffer directly. Tokens are the
+ * parts {@code String.split(" ")} would return, including its quirks: empty parts between or
+ * before spaces are tokens, trailing empty parts are not, and an empty name has one empty token.
+ * They are kept as offsets and only worked out when first asked for.
+ *
+ * Instances are not thread-safe; keep one per thread and reuse it.
+ */
+public final class NormalizedName implements CharSequence {
+
+    private char[] chars = new char[64];
+    private int length;
+
+    private int[] tokenStart = new int[8];
+    private int[] tokenEnd = new int[8];
+    private int[] tokenOrder = new int[8];
+    private int tokenCount = -1;
+    private boolean tokensSorted;
+
+    private String string;
+
+    /**
+     * Empties the buffer, making room for at least {@code capacity} chars.
+     */
+    void clear(int capacity) {
+        if (chars.length < capacity) {
+            chars = new char[Math.max(capacity, chars.length * 2)];
+        }
+        length = 0;
+        tokenCount = -1;
+        tokensSorted = false;
+        string = null;
+    }
+
+    /**
+     * Appends one char; the buffer was sized by {@link #clear(int)}.
+     */
+    void append(char c) {
+        chars[length++] = c;
+    }
+
+    /**
+     * Replaces the content with a name normalized on the String path.
+     */
+    void load(String normalized) {
+        clear(normalized.length());
+        normalized.getChars(0, normalized.length(), chars, 0);
+        length = normalized.length();
+        string = normalized;
+    }
+
+    /**
+     * Replaces the content with an already normalized name, e.g. one read from a
+     * {@link com.name.match.reference.ReferenceStore}.
+     */
+    public NormalizedName set(CharSequence normalized) {
+        int normalizedLength = normalized.length();
+        clear(normalizedLength);
+        for (int i = 0; i < normalizedLength; i++) {
+            chars[i] = normalized.charAt(i);
+        }
+        length = normalizedLength;
+        return this;
+    }
+
+    /**
+     * Removes leading and trailing chars up to and including the space, like {@link String#trim()}.
+     */
+    void trim() {
+        int end = length;
+        while (end > 0 && chars[end - 1] <= ' ') {
+            end--;
+        }
+        int start = 0;
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        if (start > 0) {
+            System.arraycopy(chars, start, chars, 0, end - start);
+        }
+        length = end - start;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    /**
+     * The normalized name as a String, created at most once per name.
+     */
+    @Override
+    public String toString() {
+        if (string == null) {
+            string = new String(chars, 0, length);
+        }
+        return string;
+    }
+
+    /**
+     * Same as {@code toString().equals(other.toString())}.
+     */
+    public boolean contentEquals(NormalizedName other) {
+        return length == other.length && regionEquals(0, other, 0, length);
+    }
+
+    /**
+     * Same as {@code toString().contentEquals(text)}.
+     */
+    public boolean contentEquals(CharSequence text) {
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@code toString().replace(" ", "").equals(other.toString().replace(" ", ""))}.
+     */
+    public boolean equalsIgnoringSpaces(NormalizedName other) {
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < length && chars[i] == ' ') {
+                i++;
+            }
+            while (j < other.length && other.chars[j] == ' ') {
+                j++;
+            }
+            if (i == length || j == other.length) {
+                return i == length && j == other.length;
+            }
+            if (chars[i++] != other.chars[j++]) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Number of parts {@code toString().split(" ")} would return.
+     */
+    public int tokenCount() {
+        if (tokenCount < 0) {
+            tokenize();
+        }
+        return tokenCount;
+    }
+
+    /**
+     * Start offset of token {@code index}.
+     */
+    public int tokenStart(int index) {
+        tokenCount();
+        return tokenStart[index];
+    }
+
+    /**
+     * End offset, exclusive, of token {@code index}.
+     */
+    public int tokenEnd(int index) {
+        tokenCount();
+        return tokenEnd[index];
+    }
+
+    /**
+     * Index of the token at position {@code rank} when the tokens are sorted in String order.
+     */
+    public int sortedToken(int rank) {
+        sortTokens();
+        return tokenOrder[rank];
+    }
+
+    /**
+     * Same as comparing {@code asList(split(" "))} of both names with {@code equals}.
+     */
+    public boolean tokensEqual(NormalizedName other) {
+        int count = tokenCount();
+        if (count != other.tokenCount()) {
+            return false;
+        }
+        for (int t = 0; t < count; t++) {
+            if (!tokenEquals(t, other, t)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as sorting {@code asList(split(" "))} of both names and comparing with {@code equals}.
+     */
+    public boolean sortedTokensEqual(NormalizedName other) {
+        int count = tokenCount();
+        if (count != other.tokenCount()) {
+            return false;
+        }
+        sortTokens();
+        other.sortTokens();
+        for (int t = 0; t < count; t++) {
+            if (!tokenEquals(tokenOrder[t], other, other.tokenOrder[t])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void tokenize() {
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (chars[i] == ' ') {
+                count = addToken(count, start, i);
+                start = i + 1;
+            }
+        }
+        count = addToken(count, start, length);
+
+        // split drops trailing empty parts, unless there was no separator at all
+        if (count > 1) {
+            while (count > 0 && tokenStart[count - 1] == tokenEnd[count - 1]) {
+                count--;
+            }
+        }
+        tokenCount = count;
+    }
+
+    private int addToken(int count, int start, int end) {
+        if (count == tokenStart.length) {
+            tokenStart = Arrays.copyOf(tokenStart, count * 2);
+            tokenEnd = Arrays.copyOf(tokenEnd, count * 2);
+            tokenOrder = Arrays.copyOf(tokenOrder, count * 2);
+        }
+        tokenStart[count] = start;
+        tokenEnd[count] = end;
+        return count + 1;
+    }
+
+    /**
+     * Insertion sort of the token indexes in String order; names have a handful of tokens.
+     */
+    private void sortTokens() {
+        if (tokensSorted) {
+            return;
+        }
+        int count = tokenCount();
+        for (int i = 0; i < count; i++) {
+            int token = i;
+            int j = i - 1;
+            while (j >= 0 && compareTokens(tokenOrder[j], token) > 0) {
+                tokenOrder[j + 1] = tokenOrder[j];
+                j--;
+            }
+            tokenOrder[j + 1] = token;
+        }
+        tokensSorted = true;
+    }
+
+    private int compareTokens(int a, int b) {
+        int aStart = tokenStart[a];
+        int bStart = tokenStart[b];
+        int aLength = tokenEnd[a] - aStart;
+        int bLength = tokenEnd[b] - bStart;
+        int common = Math.min(aLength, bLength);
+        for (int i = 0; i < common; i++) {
+            char x = chars[aStart + i];
+            char y = chars[bStart + i];
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    private boolean tokenEquals(int token, NormalizedName other, int otherToken) {
+        int start = tokenStart[token];
+        int tokenLength = tokenEnd[token] - start;
+        int otherStart = other.tokenStart[otherToken];
+        return tokenLength == other.tokenEnd[otherToken] - otherStart
+                && regionEquals(start, other, otherStart, tokenLength);
+    }
+
+    private boolean regionEquals(int start, NormalizedName other, int otherStart, int regionLength) {
+        for (int i = 0; i < regionLength; i++) {
+            if (chars[start + i] != other.chars[otherStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,164 @@
+package com.name.match.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Soundex codes for normalized names, computed in one pass and memoized.
+ *
+ * Customer names recur constantly, so the codes are kept in a size-bounded Caffeine cache
+ * (W-TinyLFU eviction) keyed by the normalized name; a repeat lookup costs one hash probe.
+ * Cache statistics are published as {@code cache.*} meters with {@code cache=namematch.soundex}.
+ *
+ * {@link #soundex(String)} returns exactly what the original per-service implementation did:
+ * the first character of the upper-cased name followed by the non-zero, non-repeated digit codes,
+ * padded with zeros to four characters. ASCII names take a single pass with no intermediate
+ * copies; anything else, and any default locale whose case mapping differs for ASCII letters,
+ * takes the original String based path so case mapping edge cases (e.g. "ß" becoming "SS")
+ * behave as before.
+ */
+@Component
+public class PhoneticKeys {
+
+    /**
+     * Cache size used when no size is configured.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final String NO_CODE = "0000";
+
+    private final Cache<String, String> codes;
+
+    /**
+     * Creates an unmonitored cache, for use outside Spring.
+     */
+    public PhoneticKeys(long maximumSize) {
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Autowired
+    public PhoneticKeys(MeterRegistry meterRegistry,
+                        @Value("${namematch.phonetic.cache-size:" + DEFAULT_MAXIMUM_SIZE + "}") long maximumSize) {
+        this(maximumSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, codes, "namematch.soundex");
+    }
+
+    /**
+     * Returns the four character Soundex code of {@code name}, computing it at most once while it
+     * stays in the cache. Null or empty names have the code "0000".
+     */
+    public String soundex(String name) {
+        if (name == null || name.isEmpty()) {
+            return NO_CODE;
+        }
+        return codes.get(name, PhoneticKeys::encode);
+    }
+
+    /**
+     * Computes the Soundex code without caching.
+     */
+    public static String encode(String name) {
+        if (name == null || name.isEmpty()) {
+            return NO_CODE;
+        }
+        if (!LocaleCheck.ASCII_CASE_MAPPING || !isAscii(name)) {
+            return encodeUpperCased(name.toUpperCase());
+        }
+
+        char[] out = { '0', '0', '0', '0' };
+        char first = name.charAt(0);
+        out[0] = first >= 'a' && first <= 'z' ? (char) (first - ('a' - 'A')) : first;
+
+        int length = 1;
+        char previous = code(first);
+        for (int i = 1; i < name.length() && length < 4; i++) {
+            char current = code(name.charAt(i));
+            if (current != previous && current != '0') {
+                out[length++] = current;
+            }
+            previous = current;
+        }
+        return new String(out);
+    }
+
+    /**
+     * The original algorithm, applied to an already upper-cased name.
+     */
+    private static String encodeUpperCased(String upper) {
+        char first = upper.charAt(0);
+        char[] out = { first, '0', '0', '0' };
+
+        int length = 1;
+        char previous = code(first);
+        for (int i = 1; i < upper.length() && length < 4; i++) {
+            char current = code(upper.charAt(i));
+            if (current != previous && current != '0') {
+                out[length++] = current;
+            }
+            previous = current;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Soundex digit for one character; lower case ASCII letters are coded like upper case ones.
+     */
+    private static char code(char c) {
+        switch (c) {
+            case 'B': case 'F': case 'P': case 'V':
+            case 'b': case 'f': case 'p': case 'v':
+                return '1';
+
+            case 'C': case 'G': case 'J': case 'K': case 'Q': case 'S': case 'X': case 'Z':
+            case 'c': case 'g': case 'j': case 'k': case 'q': case 's': case 'x': case 'z':
+                return '2';
+
+            case 'D': case 'T':
+            case 'd': case 't':
+                return '3';
+
+            case 'L':
+            case 'l':
+                return '4';
+
+            case 'M': case 'N':
+            case 'm': case 'n':
+                return '5';
+
+            case 'R':
+            case 'r':
+                return '6';
+
+            default:
+                return '0';
+        }
+    }
+
+    private static boolean isAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@link String#toUpperCase()} maps ASCII letters to ASCII letters in the default
+     * locale. It does not for Turkish and Azeri, where "i" becomes a dotted capital I.
+     */
+    private static final class LocaleCheck {
+        static final boolean ASCII_CASE_MAPPING =
+                "abcdefghijklmnopqrstuvwxyz".toUpperCase().equals("abcdefghijklmnopqrstuvwxyz".toUpperCase(Locale.ROOT));
+    }
+}
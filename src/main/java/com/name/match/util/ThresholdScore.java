@@ -0,0 +1,56 @@
+package com.name.match.util;
+
+/**
+ * Outcome of scoring a pair against a threshold, where scoring may stop as soon as the outcome is
+ * known.
+ *
+ * {@link #isReached()} is always exact. The score itself is only known to lie between
+ * {@link #getLowerBound()} and {@link #getUpperBound()}; when both are equal it is exact.
+ */
+public final class ThresholdScore {
+
+    private final double threshold;
+    private final boolean reached;
+    private final double lowerBound;
+    private final double upperBound;
+
+    public ThresholdScore(double threshold, boolean reached, double lowerBound, double upperBound) {
+        this.threshold = threshold;
+        this.reached = reached;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * A fully computed score.
+     */
+    public static ThresholdScore exact(double threshold, double score) {
+        return new ThresholdScore(threshold, score >= threshold, score, score);
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Whether the score is at least the threshold.
+     */
+    public boolean isReached() {
+        return reached;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Whether scoring ran to completion, so both bounds are the score.
+     */
+    public boolean isExact() {
+        return lowerBound == upperBound;
+    }
+}
@@ -0,0 +1,292 @@
+package com.name.match.util;
+
+import java.util.Arrays;
+
+/**
+ * Scores two names by pairing up their parts, so reordered names ("Sharma Rahul" and "Rahul
+ * Sharma") and expanded initials ("L K Advani" and "Lal Krishna Advani") score as the same parts.
+ *
+ * Names are split into tokens at every character that is not a letter or digit; apostrophes are
+ * dropped, so "O'Brien" is one token. Two tokens are compared by:
+ *
+ * - 1 when equal
+ * - {@link #INITIAL_SIMILARITY} for a single letter against a longer token starting with it
+ * - otherwise the Dice coefficient of their bigram multisets, 2 * common / (bigrams1 + bigrams2)
+ *
+ * Each pair is worth its similarity times the combined length of both tokens. The alignment picks
+ * the one-to-one pairing with the highest total, and the score is that total over the length of all
+ * tokens on both sides, so unpaired tokens count against it. Since an initial only earns
+ * {@link #INITIAL_SIMILARITY}, names that differ by expanded initials stay below an exact match:
+ * "R Singh" against "Rajnath Singh" aligns at 0.96.
+ *
+ * The pairing is found by branch and bound over the tokens of the shorter name, best row first,
+ * starting from the greedy pairing. The sum of each remaining row's best pair bounds what the rest
+ * of a branch can add, which prunes almost every branch for real names. The same bound, taken over
+ * all rows before searching, lets {@link #similarityAbove} return without searching at all when
+ * the alignment cannot beat a given score.
+ *
+ * Scratch buffers are kept per thread, so steady state scoring does not allocate.
+ */
+public final class TokenAligner {
+
+    /**
+     * Similarity of an initial and a longer token with the same first letter.
+     */
+    public static final double INITIAL_SIMILARITY = 0.9;
+
+    /**
+     * Tokens per name considered by the search; further tokens are paired greedily.
+     */
+    static final int MAX_SEARCH_TOKENS = 8;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private TokenAligner() {
+    }
+
+    /**
+     * Alignment similarity of two names, from 0 to 1. Null, empty and punctuation-only names have
+     * similarity 0.
+     */
+    public static double similarity(CharSequence a, CharSequence b) {
+        return similarityAbove(a, b, -1);
+    }
+
+    /**
+     * Like {@link #similarity}, but only exact when the result is above {@code floor}. Otherwise
+     * returns some value no greater than {@code floor}, usually after scoring the token pairs but
+     * without searching for the best pairing.
+     */
+    public static double similarityAbove(CharSequence a, CharSequence b, double floor) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        Scratch scratch = SCRATCH.get();
+        scratch.load(a, b);
+        return scratch.align(floor);
+    }
+
+    /**
+     * Similarity of two tokens as described in the class comment.
+     */
+    private static double tokenSimilarity(char[] chars, int aStart, int aEnd, int bStart, int bEnd, int[] bigrams) {
+        int aLength = aEnd - aStart;
+        int bLength = bEnd - bStart;
+        if (aLength == bLength && Arrays.equals(chars, aStart, aEnd, chars, bStart, bEnd)) {
+            return 1;
+        }
+        if (aLength == 1 || bLength == 1) {
+            return aLength != bLength && chars[aStart] == chars[bStart] ? INITIAL_SIMILARITY : 0;
+        }
+
+        // Bigrams of b, crossed out as the bigrams of a find them
+        int bCount = bLength - 1;
+        for (int i = 0; i < bCount; i++) {
+            bigrams[i] = BigramKernel.pack(chars[bStart + i], chars[bStart + i + 1]);
+        }
+        int common = 0;
+        for (int i = aStart; i < aEnd - 1; i++) {
+            int bigram = BigramKernel.pack(chars[i], chars[i + 1]);
+            for (int j = 0; j < bCount; j++) {
+                if (bigrams[j] == bigram) {
+                    bigrams[j] = -1;
+                    common++;
+                    break;
+                }
+            }
+        }
+        return 2.0 * common / (aLength - 1 + bCount);
+    }
+
+    private static final class Scratch {
+        private char[] chars = new char[64];
+        private int length;
+        // Token bounds of both names; tokens [0, aTokens) are the first name's
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int aTokens;
+        private int bTokens;
+        private int totalLength;
+        private int[] bigrams = new int[32];
+
+        // Pair values, rows are the tokens of the name with fewer tokens
+        private final double[] values = new double[MAX_SEARCH_TOKENS * MAX_SEARCH_TOKENS];
+        private final int[] rowOrder = new int[MAX_SEARCH_TOKENS];
+        private final double[] rowBest = new double[MAX_SEARCH_TOKENS];
+        private final double[] suffixBound = new double[MAX_SEARCH_TOKENS + 1];
+        private int rows;
+        private int columns;
+        private double best;
+
+        void load(CharSequence a, CharSequence b) {
+            int capacity = a.length() + b.length();
+            if (chars.length < capacity) {
+                chars = new char[Math.max(capacity, 2 * chars.length)];
+            }
+            length = 0;
+            aTokens = tokenize(a, 0);
+            bTokens = tokenize(b, aTokens);
+        }
+
+        private int tokenize(CharSequence s, int firstToken) {
+            int tokens = firstToken;
+            int start = -1;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    if (start < 0) {
+                        start = length;
+                    }
+                    chars[length++] = Character.toLowerCase(c);
+                } else if (c != '\'' && c != '\u2019' && start >= 0) {
+                    tokens = addToken(tokens, start);
+                    start = -1;
+                }
+            }
+            if (start >= 0) {
+                tokens = addToken(tokens, start);
+            }
+            return tokens - firstToken;
+        }
+
+        private int addToken(int token, int start) {
+            if (token == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * token);
+                ends = Arrays.copyOf(ends, 2 * token);
+            }
+            starts[token] = start;
+            ends[token] = length;
+            return token + 1;
+        }
+
+        double align(double floor) {
+            if (aTokens == 0 || bTokens == 0) {
+                return 0;
+            }
+            boolean aRows = aTokens <= bTokens;
+            int rowBase = aRows ? 0 : aTokens;
+            int columnBase = aRows ? aTokens : 0;
+            int allRows = aRows ? aTokens : bTokens;
+            int allColumns = aRows ? bTokens : aTokens;
+            totalLength = 0;
+            for (int t = 0; t < aTokens + bTokens; t++) {
+                totalLength += ends[t] - starts[t];
+            }
+
+            if (allColumns > MAX_SEARCH_TOKENS) {
+                return greedyOnly(rowBase, allRows, columnBase, allColumns);
+            }
+            rows = allRows;
+            columns = allColumns;
+
+            double bound = 0;
+            for (int r = 0; r < rows; r++) {
+                double rowMax = 0;
+                for (int c = 0; c < columns; c++) {
+                    double value = pairValue(rowBase + r, columnBase + c);
+                    values[r * columns + c] = value;
+                    rowMax = Math.max(rowMax, value);
+                }
+                rowBest[r] = rowMax;
+                rowOrder[r] = r;
+                bound += rowMax;
+            }
+            if (bound / totalLength <= floor) {
+                return bound / totalLength;
+            }
+
+            sortRowsByBest();
+            suffixBound[rows] = 0;
+            for (int i = rows - 1; i >= 0; i--) {
+                suffixBound[i] = suffixBound[i + 1] + rowBest[rowOrder[i]];
+            }
+            best = greedy();
+            if (best < bound) {
+                search(0, 0, 0);
+            }
+            return best / totalLength;
+        }
+
+        private double pairValue(int a, int b) {
+            int aLength = ends[a] - starts[a];
+            int bLength = ends[b] - starts[b];
+            if (bigrams.length < bLength) {
+                bigrams = new int[Math.max(bLength, 2 * bigrams.length)];
+            }
+            return tokenSimilarity(chars, starts[a], ends[a], starts[b], ends[b], bigrams) * (aLength + bLength);
+        }
+
+        private void sortRowsByBest() {
+            for (int i = 1; i < rows; i++) {
+                int row = rowOrder[i];
+                int j = i - 1;
+                while (j >= 0 && rowBest[rowOrder[j]] < rowBest[row]) {
+                    rowOrder[j + 1] = rowOrder[j];
+                    j--;
+                }
+                rowOrder[j + 1] = row;
+            }
+        }
+
+        /**
+         * Each row in turn takes its best free column.
+         */
+        private double greedy() {
+            int used = 0;
+            double total = 0;
+            for (int i = 0; i < rows; i++) {
+                int row = rowOrder[i];
+                int bestColumn = -1;
+                for (int c = 0; c < columns; c++) {
+                    if ((used & (1 << c)) == 0 && (bestColumn < 0 || values[row * columns + c] > values[row * columns + bestColumn])) {
+                        bestColumn = c;
+                    }
+                }
+                used |= 1 << bestColumn;
+                total += values[row * columns + bestColumn];
+            }
+            return total;
+        }
+
+        private void search(int depth, int used, double total) {
+            if (depth == rows) {
+                best = Math.max(best, total);
+                return;
+            }
+            if (total + suffixBound[depth] <= best) {
+                return;
+            }
+            int row = rowOrder[depth];
+            for (int c = 0; c < columns; c++) {
+                if ((used & (1 << c)) == 0) {
+                    search(depth + 1, used | (1 << c), total + values[row * columns + c]);
+                }
+            }
+        }
+
+        /**
+         * Greedy pairing for names with more tokens than the search handles, computing pair values
+         * on the fly. Such names are rare enough that the flags are not kept.
+         */
+        private double greedyOnly(int rowBase, int rowCount, int columnBase, int columnCount) {
+            boolean[] used = new boolean[columnCount];
+            double total = 0;
+            for (int r = 0; r < rowCount; r++) {
+                int bestColumn = -1;
+                double bestValue = -1;
+                for (int c = 0; c < columnCount; c++) {
+                    if (!used[c]) {
+                        double value = pairValue(rowBase + r, columnBase + c);
+                        if (value > bestValue) {
+                            bestValue = value;
+                            bestColumn = c;
+                        }
+                    }
+                }
+                used[bestColumn] = true;
+                total += bestValue;
+            }
+            return total / totalLength;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.name.match.wire;
+
+import com.name.match.model.MatchResult;
+import com.name.match.model.NamePair;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+/**
+ * Blocking client for the {@link WireProtocol}, for JVM services that score many pairs.
+ *
+ * One client holds one connection and sends one request at a time; use a client per thread to
+ * score several batches in parallel. Batches of a few thousand pairs keep the per request overhead
+ * negligible.
+ *
+ * <pre>
+ * try (WireClient client = WireClient.connect("namematch", 3001)) {
+ *     WireClient.Results results = client.score("generic", pairs);
+ *     byte decision = results.getDecision(0);
+ * }
+ * </pre>
+ */
+public class WireClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+    private int nextRequestId;
+
+    private WireClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static WireClient connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        return new WireClient(channel);
+    }
+
+    /**
+     * Scores all pairs with {@code algorithm}.
+     *
+     * @param algorithm Matcher to use, or null for the default
+     * @return One result per pair, in order
+     * @throws IOException if the connection fails or the server rejects the request
+     */
+    public synchronized Results score(String algorithm, List<? extends NamePair> pairs) throws IOException {
+        int requestId = nextRequestId++;
+        send(requestId, algorithm, pairs);
+        ByteBuffer response = receive();
+        int responseId = response.getInt();
+        if (responseId != requestId) {
+            throw new IOException("Response for request " + responseId + " while waiting for " + requestId);
+        }
+        if (response.get() != WireProtocol.STATUS_OK) {
+            throw new IOException("Server rejected request: " + WireProtocol.getString(response));
+        }
+        int count = response.getInt();
+        if (count != pairs.size()) {
+            throw new IOException("Expected " + pairs.size() + " results, got " + count);
+        }
+        byte[] decisions = new byte[count];
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            decisions[i] = response.get();
+            scores[i] = response.getDouble();
+        }
+        return new Results(decisions, scores);
+    }
+
+    private void send(int requestId, String algorithm, List<? extends NamePair> pairs) throws IOException {
+        byte[] encodedAlgorithm = WireProtocol.encode(algorithm == null ? "" : algorithm);
+        byte[][] names = new byte[2 * pairs.size()][];
+        int length = 1 + WireProtocol.stringBytes(encodedAlgorithm) + Integer.BYTES + Integer.BYTES;
+        for (int i = 0; i < pairs.size(); i++) {
+            NamePair pair = pairs.get(i);
+            names[2 * i] = WireProtocol.encode(pair.getName1());
+            names[2 * i + 1] = WireProtocol.encode(pair.getName2());
+            length += WireProtocol.stringBytes(names[2 * i]) + WireProtocol.stringBytes(names[2 * i + 1]);
+        }
+
+        ByteBuffer request = ByteBuffer.allocate(Integer.BYTES + length);
+        request.putInt(length);
+        request.put(WireProtocol.VERSION);
+        WireProtocol.putString(request, encodedAlgorithm);
+        request.putInt(requestId);
+        request.putInt(pairs.size());
+        for (byte[] name : names) {
+            WireProtocol.putString(request, name);
+        }
+        request.flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+    }
+
+    private ByteBuffer receive() throws IOException {
+        header.clear();
+        readFully(header);
+        ByteBuffer body = ByteBuffer.allocate(header.getInt(0));
+        readFully(body);
+        body.flip();
+        return body;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by server");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Decisions and scores of one request, indexed like its pairs.
+     */
+    public static final class Results {
+        private final byte[] decisions;
+        private final double[] scores;
+
+        Results(byte[] decisions, double[] scores) {
+            this.decisions = decisions;
+            this.scores = scores;
+        }
+
+        public int size() {
+            return decisions.length;
+        }
+
+        /**
+         * {@link WireProtocol#REJECT}, {@link WireProtocol#MANUAL} or {@link WireProtocol#ACCEPT}.
+         */
+        public byte getDecision(int index) {
+            return (byte) (decisions[index] & ~WireProtocol.DEGRADED);
+        }
+
+        /**
+         * Whether the score was computed without the soundex stage under load, the HTTP endpoint's
+         * {@code degraded} field.
+         */
+        public boolean isDegraded(int index) {
+            return (decisions[index] & WireProtocol.DEGRADED) != 0;
+        }
+
+        /**
+         * The decision the HTTP endpoint returns as {@code match}.
+         */
+        public MatchResult.Decision getMatch(int index) {
+            return WireProtocol.decision(decisions[index]);
+        }
+
+        /**
+         * The {@code match_score} the HTTP endpoint returns.
+         */
+        public double getScore(int index) {
+            return scores[index];
+        }
+    }
+}
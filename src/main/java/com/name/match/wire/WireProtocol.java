@@ -0,0 +1,141 @@
+package com.name.match.wire;
+
+import com.name.match.model.MatchResult;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary bulk scoring protocol shared by {@link WireServer} and {@link WireClient}.
+ *
+ * Every message is a frame: a 4 byte length followed by that many payload bytes. All integers are
+ * big-endian and strings are UTF-8 prefixed with a 2 byte length, where {@code 0xFFFF} stands for
+ * null.
+ *
+ * Request payload:
+ * - {@code byte} protocol version, currently 2
+ * - {@code string} algorithm, empty for the default
+ * - {@code int} request id, echoed in the response
+ * - {@code int} number of pairs, followed by name1 and name2 of every pair as strings
+ *
+ * Response payload:
+ * - {@code int} request id
+ * - {@code byte} status: {@link #STATUS_OK} or {@link #STATUS_ERROR}
+ * - OK: {@code int} number of results, then per pair in request order a {@code byte} decision
+ *   ({@link #REJECT}, {@link #MANUAL} or {@link #ACCEPT}, with {@link #DEGRADED} set when the HTTP
+ *   endpoint would return {@code "degraded":true}) and the {@code double} match_score
+ * - Error: a {@code string} message. The connection stays usable
+ *
+ * A connection may send further requests before earlier responses arrive; responses can come back
+ * in any order and are matched by request id.
+ */
+public final class WireProtocol {
+
+    public static final byte VERSION = 2;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    public static final byte REJECT = 0;
+    public static final byte MANUAL = 1;
+    public static final byte ACCEPT = 2;
+
+    /**
+     * Flag in the decision byte: the soundex stage was skipped under load, see
+     * {@link com.name.match.service.LatencyGuard}.
+     */
+    public static final byte DEGRADED = 0x40;
+
+    /**
+     * Bytes taken by one result in an OK response.
+     */
+    static final int RESULT_BYTES = 1 + Double.BYTES;
+
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int MAX_STRING_BYTES = NULL_LENGTH - 1;
+
+    private WireProtocol() {
+    }
+
+    /**
+     * Code sent for a decision.
+     */
+    public static byte decision(MatchResult.Decision decision) {
+        switch (decision) {
+            case ACCEPT:
+                return ACCEPT;
+            case MANUAL:
+                return MANUAL;
+            default:
+                return REJECT;
+        }
+    }
+
+    /**
+     * The decision for a code, ignoring the {@link #DEGRADED} flag.
+     */
+    public static MatchResult.Decision decision(byte code) {
+        switch (code & ~DEGRADED) {
+            case ACCEPT:
+                return MatchResult.Decision.ACCEPT;
+            case MANUAL:
+                return MatchResult.Decision.MANUAL;
+            case REJECT:
+                return MatchResult.Decision.REJECT;
+            default:
+                throw new IllegalArgumentException("Unknown decision code " + code);
+        }
+    }
+
+    /**
+     * Bytes {@link #putString} writes for {@code encoded}, the UTF-8 bytes of a string or null.
+     */
+    static int stringBytes(byte[] encoded) {
+        return Short.BYTES + (encoded == null ? 0 : encoded.length);
+    }
+
+    /**
+     * UTF-8 bytes of {@code s}, or null for null.
+     *
+     * @throws IllegalArgumentException if the string is too long to be sent
+     */
+    static byte[] encode(String s) {
+        if (s == null) {
+            return null;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String of " + bytes.length + " UTF-8 bytes exceeds the limit of "
+                    + MAX_STRING_BYTES);
+        }
+        return bytes;
+    }
+
+    static void putString(ByteBuffer buffer, byte[] encoded) {
+        if (encoded == null) {
+            buffer.putShort((short) NULL_LENGTH);
+        } else {
+            buffer.putShort((short) encoded.length);
+            buffer.put(encoded);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #putString} from a heap buffer.
+     *
+     * @throws BufferUnderflowException if the buffer ends inside the string
+     */
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return s;
+    }
+}
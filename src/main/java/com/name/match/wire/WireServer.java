@@ -0,0 +1,357 @@
+package com.name.match.wire;
+
+import com.name.match.model.MatchResult;
+import com.name.match.service.MatchResultCache;
+import com.name.match.service.NameMatcher;
+import com.name.match.service.NameMatcherRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serves the {@link WireProtocol} on its own TCP port, next to the HTTP endpoints.
+ *
+ * Enabled by setting {@code namematch.wire.port}. One selector thread accepts connections, reads
+ * frames and writes responses; decoding, scoring and encoding run on a fork-join pool, with the
+ * pairs of a large request spread over all of its threads. Pairs are scored by the same matchers,
+ * behind the same result cache, as {@code GET /nameMatchScore}.
+ *
+ * Each connection may have {@link #MAX_IN_FLIGHT} requests being scored; beyond that the server
+ * stops reading from it until responses have been written, so a fast sender cannot queue unbounded
+ * work. A frame longer than {@code namematch.wire.max-frame-bytes} closes the connection.
+ */
+@Component
+@ConditionalOnExpression("${namematch.wire.port:0} > 0")
+public class WireServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WireServer.class);
+
+    static final int MAX_IN_FLIGHT = 4;
+
+    private static final ThreadLocal<MatchResult.Holder> RESULTS = ThreadLocal.withInitial(MatchResult.Holder::new);
+
+    private final NameMatcherRegistry matchers;
+    private final MatchResultCache resultCache;
+    private final int port;
+    private final int parallelism;
+    private final int maxFrameBytes;
+
+    private ForkJoinPool pool;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+
+    @Autowired
+    public WireServer(NameMatcherRegistry matchers,
+                      MatchResultCache resultCache,
+                      @Value("${namematch.wire.port}") int port,
+                      @Value("${namematch.wire.parallelism:0}") int parallelism,
+                      @Value("${namematch.wire.max-frame-bytes:16777216}") int maxFrameBytes) {
+        this.matchers = matchers;
+        this.resultCache = resultCache;
+        this.port = port;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Cannot open wire protocol port " + port, e);
+        }
+        pool = new ForkJoinPool(parallelism);
+        running = true;
+        selectorThread = new Thread(this::run, "namematch-wire");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Wire protocol listening on port {}", port);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdownNow();
+        closeQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Connection connection;
+                while ((connection = writable.poll()) != null) {
+                    connection.enableWrites();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Wire protocol selector failed, the port is no longer served", e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Closing wire connection {}: {}", connection.channel, e.toString());
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            log.warn("Cannot accept wire connection", e);
+        }
+    }
+
+    /**
+     * Decodes one request, scores it and encodes the response frame.
+     */
+    ByteBuffer process(ByteBuffer request) {
+        int requestId = -1;
+        try {
+            byte version = request.get();
+            if (version != WireProtocol.VERSION) {
+                return error(requestId, "Unsupported protocol version " + version);
+            }
+            String algorithm = WireProtocol.getString(request);
+            requestId = request.getInt();
+            int count = request.getInt();
+            // Every pair takes at least two length prefixes
+            if (count < 0 || count > request.remaining() / (2 * Short.BYTES)) {
+                return error(requestId, "Invalid pair count " + count);
+            }
+            String[] names = new String[2 * count];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = WireProtocol.getString(request);
+            }
+            NameMatcher matcher = resultCache.apply(matchers.get(algorithm), true);
+
+            ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + Integer.BYTES + 1 + Integer.BYTES
+                    + count * WireProtocol.RESULT_BYTES);
+            response.putInt(response.capacity() - Integer.BYTES);
+            response.putInt(requestId);
+            response.put(WireProtocol.STATUS_OK);
+            response.putInt(count);
+            int base = response.position();
+            IntStream.range(0, count).parallel().forEach(i -> {
+                MatchResult.Holder result = RESULTS.get();
+                matcher.mainFunction(names[2 * i], names[2 * i + 1], result);
+                int offset = base + i * WireProtocol.RESULT_BYTES;
+                byte decision = WireProtocol.decision(result.getDecision());
+                response.put(offset, result.isDegraded() ? (byte) (decision | WireProtocol.DEGRADED) : decision);
+                response.putDouble(offset + 1, result.getScore());
+            });
+            response.position(response.capacity());
+            response.flip();
+            return response;
+        } catch (BufferUnderflowException e) {
+            return error(requestId, "Truncated request");
+        } catch (RuntimeException e) {
+            return error(requestId, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+    }
+
+    private static ByteBuffer error(int requestId, String message) {
+        byte[] encoded = message.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > 0xFFFE) {
+            encoded = "Error message too long".getBytes(StandardCharsets.UTF_8);
+        }
+        ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + Integer.BYTES + 1 + WireProtocol.stringBytes(encoded));
+        response.putInt(response.capacity() - Integer.BYTES);
+        response.putInt(requestId);
+        response.put(WireProtocol.STATUS_ERROR);
+        WireProtocol.putString(response, encoded);
+        response.flip();
+        return response;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.debug("Error closing wire protocol port", e);
+        }
+    }
+
+    /**
+     * State of one client connection. Everything except {@link #responses} is only touched by the
+     * selector thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private SelectionKey key;
+        private ByteBuffer body;
+        private ByteBuffer writing;
+        private int inFlight;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            while (inFlight < MAX_IN_FLIGHT) {
+                if (body == null) {
+                    if (channel.read(header) < 0) {
+                        close();
+                        return;
+                    }
+                    if (header.hasRemaining()) {
+                        return;
+                    }
+                    int length = header.getInt(0);
+                    if (length <= 0 || length > maxFrameBytes) {
+                        throw new IOException("Frame length " + length + " outside 1.." + maxFrameBytes);
+                    }
+                    body = ByteBuffer.allocate(length);
+                }
+                if (channel.read(body) < 0) {
+                    close();
+                    return;
+                }
+                if (body.hasRemaining()) {
+                    return;
+                }
+                ByteBuffer request = body;
+                request.flip();
+                body = null;
+                header.clear();
+                inFlight++;
+                pool.execute(() -> {
+                    responses.add(process(request));
+                    writable.add(this);
+                    selector.wakeup();
+                });
+            }
+            // Too many requests being scored: stop reading until responses go out
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        }
+
+        void enableWrites() {
+            if (key.isValid()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void write() throws IOException {
+            while (true) {
+                if (writing == null) {
+                    writing = responses.poll();
+                    if (writing == null) {
+                        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    return;
+                }
+                writing = null;
+                if (inFlight-- == MAX_IN_FLIGHT) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    // Frames may already be buffered in the socket
+                    read();
+                    if (!channel.isOpen()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Error closing wire connection", e);
+            }
+        }
+    }
+}
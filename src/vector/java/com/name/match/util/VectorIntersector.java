@@ -0,0 +1,88 @@
+package com.name.match.util;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Intersector} using SIMD compares from {@code jdk.incubator.vector}.
+ *
+ * A merge cannot be vectorized directly, because each step depends on the previous comparison.
+ * Instead one array is loaded into vectors, one code per lane, and every code of the other is
+ * broadcast and compared against all lanes at once; a lane that compares equal at least once is a
+ * match. The side loaded into lanes is the one that needs fewer compares, usually the one that fits
+ * in a single vector. When that side holds no code twice this counts exactly what the merge counts,
+ * with no data dependent branches. Repeated codes, as in "ananya", need the merge's one-for-one
+ * pairing, so those pairs go to the scalar merge; the check for them is one vector compare of the
+ * codes against themselves shifted by one lane.
+ *
+ * Loads are always full vectors. When the array has no room for that past its valid entries, it is
+ * first copied into a per-thread buffer that has; lanes past the valid entries are masked off.
+ *
+ * Built by the {@code vector} Maven profile only and loaded reflectively by {@link Intersectors}.
+ */
+final class VectorIntersector implements Intersector {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final IntVector LANE_INDEX = IntVector.zero(SPECIES).addIndex(1);
+
+    private static final ThreadLocal<int[]> BUFFER = ThreadLocal.withInitial(() -> new int[64 + LANES + 1]);
+
+    VectorIntersector() {
+        // Without SIMD hardware the API falls back to a slow Java emulation
+        if (LANES < 4) {
+            throw new UnsupportedOperationException("No SIMD support for int vectors (" + LANES + " lanes)");
+        }
+    }
+
+    @Override
+    public int intersect(int[] a, int aLength, int[] b, int bLength) {
+        if (blocks(aLength) * bLength > blocks(bLength) * aLength) {
+            return intersect(b, bLength, a, aLength);
+        }
+        if (aLength == 0) {
+            return 0;
+        }
+        int[] lanes = a;
+        if (a.length < aLength + LANES) {
+            lanes = buffer(aLength);
+            System.arraycopy(a, 0, lanes, 0, aLength);
+        }
+
+        int match = 0;
+        for (int from = 0; from < aLength; from += LANES) {
+            IntVector codes = IntVector.fromArray(SPECIES, lanes, from);
+            VectorMask<Integer> valid = LANE_INDEX.compare(VectorOperators.LT, aLength - from);
+            IntVector nextCodes = IntVector.fromArray(SPECIES, lanes, from + 1);
+            VectorMask<Integer> repeated = codes.compare(VectorOperators.EQ, nextCodes)
+                    .and(LANE_INDEX.compare(VectorOperators.LT, aLength - from - 1));
+            if (repeated.anyTrue()) {
+                return Intersector.scalar().intersect(a, aLength, b, bLength);
+            }
+            VectorMask<Integer> hits = SPECIES.maskAll(false);
+            for (int j = 0; j < bLength; j++) {
+                hits = hits.or(codes.compare(VectorOperators.EQ, b[j]));
+            }
+            match += hits.and(valid).trueCount();
+        }
+        return match;
+    }
+
+    private static int blocks(int length) {
+        return (length + LANES - 1) / LANES;
+    }
+
+    /**
+     * Per-thread copy of the lane side, long enough to load a full vector one lane past its end.
+     */
+    private static int[] buffer(int length) {
+        int[] buffer = BUFFER.get();
+        if (buffer.length < length + LANES + 1) {
+            buffer = new int[Math.max(length, 2 * buffer.length) + LANES + 1];
+            BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+}